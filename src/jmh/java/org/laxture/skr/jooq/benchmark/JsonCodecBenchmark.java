@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.benchmark;
+
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.laxture.skr.jooq.mapper.converter.json.JacksonJsonCodec;
+import org.laxture.skr.jooq.mapper.converter.json.JsonCodec;
+import org.laxture.skr.jooq.mapper.misc.ObjectMapperConfigurer;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the default {@link JacksonJsonCodec} against a Jackson configuration tuned for
+ * throughput: Blackbird generated accessors instead of reflection, fast number parsing,
+ * and a reused reader parsing UTF-8 bytes instead of a String.
+ * <p>
+ * Run by <code>./gradlew jmh</code>.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JsonCodecBenchmark {
+
+    /** number of items in the document */
+    @Param({"10", "100"})
+    public int itemCount;
+
+    private JsonCodec defaultCodec;
+    private JsonCodec optimizedCodec;
+    private ObjectReader optimizedReader;
+    private String json;
+    private byte[] jsonBytes;
+    private String itemsJson;
+    private Type itemListType;
+    private Document document;
+
+    @Setup
+    public void setup() throws Exception {
+        defaultCodec = new JacksonJsonCodec(ObjectMapperConfigurer.setupPersistentObjectMapper(new ObjectMapper()));
+
+        ObjectMapper optimizedMapper = ObjectMapperConfigurer.setupPersistentObjectMapper(JsonMapper.builder()
+            .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER, StreamReadFeature.USE_FAST_BIG_NUMBER_PARSER)
+            .addModule(new BlackbirdModule())
+            .build());
+        JacksonJsonCodec optimizedJacksonCodec = new JacksonJsonCodec(optimizedMapper);
+        optimizedCodec = optimizedJacksonCodec;
+        optimizedReader = optimizedJacksonCodec.readerFor(Document.class);
+
+        document = Document.sample(itemCount);
+        json = defaultCodec.write(document);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        itemsJson = defaultCodec.write(document.items);
+        itemListType = Document.class.getField("items").getGenericType();
+    }
+
+    @Benchmark
+    public Document readDefault() throws Exception {
+        return defaultCodec.read(json, Document.class);
+    }
+
+    @Benchmark
+    public Document readOptimized() throws Exception {
+        return optimizedCodec.read(json, Document.class);
+    }
+
+    @Benchmark
+    public Document readOptimizedBytes() throws Exception {
+        return optimizedReader.readValue(jsonBytes);
+    }
+
+    @Benchmark
+    public List<?> readListDefault() throws Exception {
+        return defaultCodec.readList(itemsJson, itemListType, Item.class);
+    }
+
+    @Benchmark
+    public List<?> readListOptimized() throws Exception {
+        return optimizedCodec.readList(itemsJson, itemListType, Item.class);
+    }
+
+    @Benchmark
+    public String writeDefault() throws Exception {
+        return defaultCodec.write(document);
+    }
+
+    @Benchmark
+    public String writeOptimized() throws Exception {
+        return optimizedCodec.write(document);
+    }
+
+    public static class Document {
+        public long id;
+        public String title;
+        public Map<String, String> settings;
+        public List<Item> items;
+
+        static Document sample(int itemCount) {
+            Document document = new Document();
+            document.id = 1;
+            document.title = "benchmark";
+            document.settings = new LinkedHashMap<>();
+            document.settings.put("theme", "dark");
+            document.settings.put("locale", "en_US");
+            document.items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                Item item = new Item();
+                item.id = i;
+                item.name = "item_" + i;
+                item.price = i * 1.25d;
+                item.tags = List.of("a", "b", "c");
+                document.items.add(item);
+            }
+            return document;
+        }
+    }
+
+    public static class Item {
+        public long id;
+        public String name;
+        public double price;
+        public List<String> tags;
+    }
+}
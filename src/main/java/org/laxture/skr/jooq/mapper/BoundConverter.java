@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper;
+
+import org.laxture.skr.jooq.mapper.converter.ConverterRegistry;
+import org.laxture.skr.jooq.mapper.converter.SkrJooqConverter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Converter of a plan column, matched ahead of time from the column's declared Jooq type
+ * and the declared type of its model property.
+ * <p>
+ * The bound converter is used as long as the runtime value is exactly of the declared class
+ * and the registry's generation is unchanged, otherwise the converter is looked up from the
+ * registry by the runtime value class.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+final class BoundConverter {
+
+    private final ConverterRegistry converterRegistry;
+    private final Type modelType;
+    private final Class<?> jooqType;
+    /** declared class of runtime values, the model type when unmapping, the Jooq type when mapping */
+    private final Class<?> valueClass;
+    private final boolean unmapping;
+    private volatile Binding binding;
+
+    private BoundConverter(ConverterRegistry converterRegistry, Type modelType, Class<?> jooqType,
+                           Class<?> valueClass, boolean unmapping) {
+        this.converterRegistry = converterRegistry;
+        this.modelType = modelType;
+        this.jooqType = jooqType;
+        this.valueClass = valueClass;
+        this.unmapping = unmapping;
+    }
+
+    /**
+     * Bind converter of Jooq values to a model property.
+     *
+     * @param converterRegistry the converter registry
+     * @param modelType the generic type of the model property
+     * @param jooqType the declared type of the column
+     */
+    static BoundConverter toModel(ConverterRegistry converterRegistry, Type modelType, Class<?> jooqType) {
+        return new BoundConverter(converterRegistry, modelType, jooqType, jooqType, false);
+    }
+
+    /**
+     * Bind converter of model property values to a column.
+     *
+     * @param converterRegistry the converter registry
+     * @param modelType the declared class of the model property, boxed if primitive
+     * @param jooqType the declared type of the column
+     */
+    static BoundConverter toJooq(ConverterRegistry converterRegistry, Class<?> modelType, Class<?> jooqType) {
+        return new BoundConverter(converterRegistry, modelType, jooqType, modelType, true);
+    }
+
+    /**
+     * @param runtimeClass class of the value to be converted
+     * @return the converter, or null if no converter matches
+     */
+    SkrJooqConverter<?, ?> match(Class<?> runtimeClass) {
+        if (runtimeClass != valueClass) {
+            return unmapping
+                ? converterRegistry.matchConverter(runtimeClass, jooqType)
+                : converterRegistry.matchConverter(modelType, runtimeClass);
+        }
+
+        long generation = converterRegistry.getGeneration();
+        Binding current = binding;
+        if (current != null && current.generation == generation) return current.converter;
+
+        SkrJooqConverter<?, ?> converter = converterRegistry.matchConverter(modelType, jooqType);
+        if (converter == null || converter.cacheable()) {
+            binding = new Binding(generation, converter);
+        }
+        return converter;
+    }
+
+    private record Binding(long generation, SkrJooqConverter<?, ?> converter) {}
+}
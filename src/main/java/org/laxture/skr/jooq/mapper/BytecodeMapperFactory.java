@@ -0,0 +1,485 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.Record;
+import org.laxture.skr.jooq.mapper.annotation.MappingInstantiator;
+import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
+
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.ClassHierarchyResolver;
+import java.lang.classfile.CodeBuilder;
+import java.lang.classfile.Label;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.constant.ConstantDescs.*;
+
+/**
+ * Generates {@link PlannedRecordMapper} and {@link PlannedRecordUnmapper} subclasses for
+ * mapping plans with the JDK ClassFile API.
+ * <p>
+ * Generated classes are hidden classes of this package if the model is public and resolvable
+ * from the library's class loader. Otherwise, e.g. package-private models, or models loaded by
+ * a child class loader like Spring Boot devtools' restart class loader, they are defined in the
+ * model's package and class loader through {@link MethodHandles#privateLookupIn}.
+ * <p>
+ * Generated code reads <code>values[i]</code>, converts the value with the plan's
+ * converter, and calls setters, getters, fields and no-arg constructors of the model
+ * directly. Properties that generated code cannot access, e.g. nested or private ones,
+ * are delegated to the reflective accessors of the plan.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+@Slf4j
+final class BytecodeMapperFactory {
+
+    private static final String GENERATED_MAPPER_NAME = "GeneratedRecordMapper";
+    private static final String GENERATED_UNMAPPER_NAME = "GeneratedRecordUnmapper";
+
+    private static final ClassDesc CD_RECORD = desc(Record.class);
+    private static final ClassDesc CD_MAPPER_BASE = desc(PlannedRecordMapper.class);
+    private static final ClassDesc CD_UNMAPPER_BASE = desc(PlannedRecordUnmapper.class);
+
+    private static final MethodTypeDesc MTD_MAPPER_INIT = MethodTypeDesc.of(CD_void,
+        desc(SkrRecordMapperProvider.class), desc(MappingPlan.class));
+    private static final MethodTypeDesc MTD_UNMAPPER_INIT = MethodTypeDesc.of(CD_void,
+        desc(SkrRecordUnmapperProvider.class), desc(UnmappingPlan.class));
+    private static final MethodTypeDesc MTD_NEW_INSTANCE = MethodTypeDesc.of(CD_Object, CD_Object.arrayType());
+    private static final MethodTypeDesc MTD_MAP_COLUMNS = MethodTypeDesc.of(CD_void, CD_Object.arrayType(), CD_Object.arrayType());
+    private static final MethodTypeDesc MTD_UNMAP_COLUMNS = MethodTypeDesc.of(CD_void, CD_Object, CD_RECORD);
+    private static final MethodTypeDesc MTD_CONVERT = MethodTypeDesc.of(CD_Object, CD_int, CD_Object);
+    private static final MethodTypeDesc MTD_ASSIGN = MethodTypeDesc.of(CD_void, CD_int, CD_Object.arrayType(), CD_Object);
+    private static final MethodTypeDesc MTD_READ_VALUE = MethodTypeDesc.of(CD_Object, CD_Object, CD_int);
+    private static final MethodTypeDesc MTD_WRITE_VALUE = MethodTypeDesc.of(CD_void, CD_RECORD, CD_int, CD_Object);
+
+    // local variable slots of generated methods, 0-2 are this and the two parameters
+    private static final int SLOT_MODEL = 3;
+    private static final int SLOT_VALUE = 4;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /** generated classes defined by {@link MethodHandles.Lookup#defineClass} need unique names */
+    private static final AtomicLong GENERATED_SEQUENCE = new AtomicLong();
+
+    /** whether falling back to reflection has been logged for the model */
+    private static final ClassValue<AtomicBoolean> FALLBACK_LOGGED = new ClassValue<>() {
+        @Override
+        protected AtomicBoolean computeValue(Class<?> type) {
+            return new AtomicBoolean();
+        }
+    };
+
+    private BytecodeMapperFactory() {}
+
+    /**
+     * Generate record mapper for the plan.
+     *
+     * @return the generated mapper, or null if generated code cannot access the model
+     */
+    @SuppressWarnings("unchecked")
+    static <R extends Record, E> PlannedRecordMapper<R, E> createRecordMapper(SkrRecordMapperProvider provider,
+                                                                              MappingPlan<E> plan) {
+        Class<? extends E> modelType = plan.getModelType();
+        if (plan.isMapModel()) return null;
+        Class<?> host = hostOf(modelType);
+        if (host == null) {
+            logFallback(modelType, "it is not accessible from the library or from its own package");
+            return null;
+        }
+
+        MappingPlan.ColumnBinding[] bindings = plan.getBindings();
+        Member[] writers = new Member[bindings.length];
+        boolean directInstance = plan.getConstructorBinding() == null && isDirectInstantiable(modelType, host);
+        boolean generatable = directInstance;
+        for (int i = 0; i < bindings.length; i++) {
+            if (bindings[i] == null) continue;
+            writers[i] = findDirectWriter(bindings[i], host);
+            generatable |= writers[i] != null;
+        }
+        if (!generatable) {
+            logFallback(modelType, "none of its constructor, setters or fields is accessible");
+            return null;
+        }
+
+        try {
+            ClassDesc modelDesc = desc(modelType);
+            MethodHandles.Lookup lookup = lookupFor(modelType, host);
+            byte[] bytes = classFile(host).build(generatedDesc(lookup, GENERATED_MAPPER_NAME), clb -> {
+                clb.withFlags(ClassFile.ACC_FINAL | ClassFile.ACC_SYNTHETIC)
+                    .withSuperclass(CD_MAPPER_BASE)
+                    .withMethodBody(INIT_NAME, MTD_MAPPER_INIT, ClassFile.ACC_PUBLIC, cob -> cob
+                        .aload(0).aload(1).aload(2)
+                        .invokespecial(CD_MAPPER_BASE, INIT_NAME, MTD_MAPPER_INIT)
+                        .return_())
+                    .withMethodBody("mapColumns", MTD_MAP_COLUMNS, ClassFile.ACC_PROTECTED,
+                        cob -> emitMapColumns(cob, modelDesc, bindings, writers));
+                if (directInstance) {
+                    clb.withMethodBody("newInstance", MTD_NEW_INSTANCE, ClassFile.ACC_PROTECTED, cob -> cob
+                        .new_(modelDesc).dup()
+                        .invokespecial(modelDesc, INIT_NAME, MTD_void)
+                        .areturn());
+                }
+            });
+            return (PlannedRecordMapper<R, E>) instantiate(lookup, bytes,
+                MethodType.methodType(void.class, SkrRecordMapperProvider.class, MappingPlan.class),
+                provider, plan);
+        } catch (Throwable e) {
+            log.warn("Failed to generate record mapper for {}, fallback to reflection.", modelType, e);
+            return null;
+        }
+    }
+
+    /**
+     * Generate record unmapper for the plan.
+     *
+     * @return the generated unmapper, or null if generated code cannot access the model
+     */
+    @SuppressWarnings("unchecked")
+    static <E, R extends Record> PlannedRecordUnmapper<E, R> createRecordUnmapper(SkrRecordUnmapperProvider provider,
+                                                                                  UnmappingPlan<E> plan) {
+        Class<? extends E> modelType = plan.getModelType();
+        Class<?> host = hostOf(modelType);
+        if (host == null) {
+            logFallback(modelType, "it is not accessible from the library or from its own package");
+            return null;
+        }
+
+        UnmappingPlan.PropertyBinding[] bindings = plan.getBindings();
+        Member[] readers = new Member[bindings.length];
+        boolean generatable = false;
+        for (int i = 0; i < bindings.length; i++) {
+            if (bindings[i] == null) continue;
+            readers[i] = findDirectReader(bindings[i], host);
+            generatable |= readers[i] != null;
+        }
+        if (!generatable) {
+            logFallback(modelType, "none of its getters or fields is accessible");
+            return null;
+        }
+
+        try {
+            ClassDesc modelDesc = desc(modelType);
+            MethodHandles.Lookup lookup = lookupFor(modelType, host);
+            byte[] bytes = classFile(host).build(generatedDesc(lookup, GENERATED_UNMAPPER_NAME), clb -> clb
+                .withFlags(ClassFile.ACC_FINAL | ClassFile.ACC_SYNTHETIC)
+                .withSuperclass(CD_UNMAPPER_BASE)
+                .withMethodBody(INIT_NAME, MTD_UNMAPPER_INIT, ClassFile.ACC_PUBLIC, cob -> cob
+                    .aload(0).aload(1).aload(2)
+                    .invokespecial(CD_UNMAPPER_BASE, INIT_NAME, MTD_UNMAPPER_INIT)
+                    .return_())
+                .withMethodBody("unmapColumns", MTD_UNMAP_COLUMNS, ClassFile.ACC_PROTECTED,
+                    cob -> emitUnmapColumns(cob, modelDesc, readers)));
+            return (PlannedRecordUnmapper<E, R>) instantiate(lookup, bytes,
+                MethodType.methodType(void.class, SkrRecordUnmapperProvider.class, UnmappingPlan.class),
+                provider, plan);
+        } catch (Throwable e) {
+            log.warn("Failed to generate record unmapper for {}, fallback to reflection.", modelType, e);
+            return null;
+        }
+    }
+
+    //*************************************************************************
+    // Code Emitting
+    //*************************************************************************
+
+    /**
+     * <pre>
+     * Model model = (Model) owners[0];
+     * Object value = values[i];
+     * if (value != null) {
+     *     value = convert(i, value);
+     *     if (value != null) model.setXxx((Type) value); // or assign(i, owners, value)
+     * }
+     * ...
+     * </pre>
+     */
+    private static void emitMapColumns(CodeBuilder cob, ClassDesc modelDesc,
+                                       MappingPlan.ColumnBinding[] bindings, Member[] writers) {
+        cob.aload(2).iconst_0().aaload().checkcast(modelDesc).astore(SLOT_MODEL);
+        for (int i = 0; i < bindings.length; i++) {
+            if (bindings[i] == null) continue;
+            Label skip = cob.newLabel();
+            cob.aload(1).loadConstant(i).aaload()
+                .astore(SLOT_VALUE)
+                .aload(SLOT_VALUE).ifnull(skip)
+                .aload(0).loadConstant(i).aload(SLOT_VALUE)
+                .invokevirtual(CD_MAPPER_BASE, "convert", MTD_CONVERT)
+                .astore(SLOT_VALUE)
+                .aload(SLOT_VALUE).ifnull(skip);
+
+            if (writers[i] instanceof Method setter) {
+                cob.aload(SLOT_MODEL).aload(SLOT_VALUE);
+                emitUnbox(cob, setter.getParameterTypes()[0]);
+                cob.invokevirtual(modelDesc, setter.getName(), desc(setter));
+                emitPop(cob, setter.getReturnType());
+            } else if (writers[i] instanceof Field field) {
+                cob.aload(SLOT_MODEL).aload(SLOT_VALUE);
+                emitUnbox(cob, field.getType());
+                cob.putfield(desc(field.getDeclaringClass()), field.getName(), desc(field.getType()));
+            } else {
+                cob.aload(0).loadConstant(i).aload(2).aload(SLOT_VALUE)
+                    .invokevirtual(CD_MAPPER_BASE, "assign", MTD_ASSIGN);
+            }
+            cob.labelBinding(skip);
+        }
+        cob.return_();
+    }
+
+    /**
+     * <pre>
+     * Model model = (Model) modelInstance;
+     * writeValue(record, i, model.getXxx()); // or readValue(model, i)
+     * ...
+     * </pre>
+     */
+    private static void emitUnmapColumns(CodeBuilder cob, ClassDesc modelDesc, Member[] readers) {
+        cob.aload(1).checkcast(modelDesc).astore(SLOT_MODEL);
+        for (int i = 0; i < readers.length; i++) {
+            cob.aload(0).aload(2).loadConstant(i);
+            if (readers[i] instanceof Method getter) {
+                cob.aload(SLOT_MODEL).invokevirtual(modelDesc, getter.getName(), desc(getter));
+                emitBox(cob, getter.getReturnType());
+            } else if (readers[i] instanceof Field field) {
+                cob.aload(SLOT_MODEL).getfield(desc(field.getDeclaringClass()), field.getName(), desc(field.getType()));
+                emitBox(cob, field.getType());
+            } else {
+                cob.aload(0).aload(SLOT_MODEL).loadConstant(i)
+                    .invokevirtual(CD_UNMAPPER_BASE, "readValue", MTD_READ_VALUE);
+            }
+            cob.invokevirtual(CD_UNMAPPER_BASE, "writeValue", MTD_WRITE_VALUE);
+        }
+        cob.return_();
+    }
+
+    private static void emitUnbox(CodeBuilder cob, Class<?> type) {
+        if (!type.isPrimitive()) {
+            cob.checkcast(desc(type));
+            return;
+        }
+        ClassDesc boxed = desc(ReflectionUtils.wrap(type));
+        cob.checkcast(boxed).invokevirtual(boxed, type.getName() + "Value", MethodTypeDesc.of(desc(type)));
+    }
+
+    private static void emitBox(CodeBuilder cob, Class<?> type) {
+        if (!type.isPrimitive()) return;
+        ClassDesc boxed = desc(ReflectionUtils.wrap(type));
+        cob.invokestatic(boxed, "valueOf", MethodTypeDesc.of(boxed, desc(type)));
+    }
+
+    private static void emitPop(CodeBuilder cob, Class<?> type) {
+        if (type == void.class) return;
+        if (type == long.class || type == double.class) cob.pop2();
+        else cob.pop();
+    }
+
+    //*************************************************************************
+    // Member Resolving
+    //*************************************************************************
+
+    /**
+     * Find the setter, or the field if there is no setter, that generated code can
+     * write the converted value to directly.
+     */
+    private static Member findDirectWriter(MappingPlan.ColumnBinding binding, Class<?> host) {
+        if (binding.path().isNested() || binding.propertyType() == null) return null;
+        Class<?> propertyClass = ReflectionUtils.toBoxedClass(binding.propertyType());
+        ReflectionUtils.Accessor accessor = binding.path().getAccessor();
+
+        Method setter = accessor.getSetter();
+        if (setter != null) {
+            if (setter.getParameterCount() != 1 || !isAccessible(setter, host)) return null;
+            return isAssignable(setter.getParameterTypes()[0], propertyClass) ? setter : null;
+        }
+        Field field = accessor.getField();
+        if (field == null || Modifier.isFinal(field.getModifiers()) || !isAccessible(field, host)) return null;
+        return isAssignable(field.getType(), propertyClass) ? field : null;
+    }
+
+    /**
+     * Find the getter, or the field if there is no getter, that generated code can
+     * read the model value from directly.
+     */
+    private static Member findDirectReader(UnmappingPlan.PropertyBinding binding, Class<?> host) {
+        if (binding.path().isNested() || binding.transientProperty()) return null;
+        ReflectionUtils.Accessor accessor = binding.path().getAccessor();
+
+        Method getter = accessor.getGetter();
+        if (getter != null) {
+            return getter.getParameterCount() == 0 && getter.getReturnType() != void.class
+                && isAccessible(getter, host) ? getter : null;
+        }
+        Field field = accessor.getField();
+        return field != null && isAccessible(field, host) ? field : null;
+    }
+
+    private static boolean isAssignable(Class<?> targetType, Class<?> valueType) {
+        // primitive target can only be unboxed from its exact wrapper
+        return targetType.isPrimitive()
+            ? ReflectionUtils.wrap(targetType) == valueType
+            : targetType.isAssignableFrom(valueType);
+    }
+
+    private static boolean isAccessible(Method method, Class<?> host) {
+        if (Modifier.isStatic(method.getModifiers()) || !isAccessible((Member) method, host)) return false;
+        if (!isAccessible(method.getReturnType(), host)) return false;
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isAccessible(parameterType, host)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isAccessible(Field field, Class<?> host) {
+        return !Modifier.isStatic(field.getModifiers()) && isAccessible((Member) field, host)
+            && isAccessible(field.getType(), host);
+    }
+
+    /**
+     * Public members, or non-private members declared in the package generated code lives in.
+     */
+    private static boolean isAccessible(Member member, Class<?> host) {
+        int modifiers = member.getModifiers();
+        if (Modifier.isPrivate(modifiers)) return false;
+        if (!Modifier.isPublic(modifiers) && !isSamePackage(member.getDeclaringClass(), host)) return false;
+        return isAccessible(member.getDeclaringClass(), host);
+    }
+
+    /**
+     * Generated code lives in the package and class loader of the host, so it can only link
+     * against classes resolvable from the host's class loader, which are either public or
+     * non-private classes of the host's package.
+     */
+    private static boolean isAccessible(Class<?> clazz, Class<?> host) {
+        if (clazz.isPrimitive()) return true;
+        if (clazz.isArray()) return isAccessible(clazz.getComponentType(), host);
+        boolean samePackage = isSamePackage(clazz, host);
+        for (Class<?> c = clazz; c != null; c = c.getDeclaringClass()) {
+            int modifiers = c.getModifiers();
+            if (Modifier.isPrivate(modifiers) || !Modifier.isPublic(modifiers) && !samePackage) return false;
+        }
+        if (!samePackage && !clazz.getModule().isExported(clazz.getPackageName())) return false;
+        return isResolvable(clazz, host.getClassLoader());
+    }
+
+    private static boolean isSamePackage(Class<?> clazz, Class<?> host) {
+        return clazz.getClassLoader() == host.getClassLoader()
+            && clazz.getPackageName().equals(host.getPackageName());
+    }
+
+    private static boolean isResolvable(Class<?> clazz, ClassLoader classLoader) {
+        try {
+            return Class.forName(clazz.getName(), false, classLoader) == clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Model can be created by <code>new</code> only if it has an accessible no-arg constructor
+     * and no {@link MappingInstantiator} factory method, see {@link ReflectionUtils#createInstance}.
+     */
+    private static boolean isDirectInstantiable(Class<?> modelType, Class<?> host) {
+        if (modelType.isInterface() || Modifier.isAbstract(modelType.getModifiers())) return false;
+        for (Method method : modelType.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(MappingInstantiator.class)) return false;
+        }
+        try {
+            return isAccessible(modelType.getDeclaredConstructor(), host);
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    //*************************************************************************
+    // Class Defining
+    //*************************************************************************
+
+    /**
+     * Find the class whose package and class loader generated code for the model lives in.
+     *
+     * @return this class if the model is accessible from the library, the model itself if it's
+     *         accessible from its own package and can see the library's base classes, or null
+     */
+    private static Class<?> hostOf(Class<?> modelType) {
+        if (isAccessible(modelType, BytecodeMapperFactory.class)) return BytecodeMapperFactory.class;
+        ClassLoader classLoader = modelType.getClassLoader();
+        if (classLoader == null || modelType.isHidden() || !isAccessible(modelType, modelType)) return null;
+        return isResolvable(PlannedRecordMapper.class, classLoader)
+            && isResolvable(PlannedRecordUnmapper.class, classLoader) ? modelType : null;
+    }
+
+    private static MethodHandles.Lookup lookupFor(Class<?> modelType, Class<?> host) throws IllegalAccessException {
+        return host == BytecodeMapperFactory.class ? LOOKUP : MethodHandles.privateLookupIn(modelType, LOOKUP);
+    }
+
+    /**
+     * Hidden classes get unique names from the JVM, classes defined into another module by
+     * a lookup without full privilege access don't.
+     */
+    private static ClassDesc generatedDesc(MethodHandles.Lookup lookup, String simpleName) {
+        String packageName = lookup.lookupClass().getPackageName();
+        String name = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        return ClassDesc.of(lookup.hasFullPrivilegeAccess() ? name : name + "$" + GENERATED_SEQUENCE.incrementAndGet());
+    }
+
+    private static ClassFile classFile(Class<?> host) {
+        return ClassFile.of(ClassFile.ClassHierarchyResolverOption.of(
+            ClassHierarchyResolver.defaultResolver().orElse(
+                ClassHierarchyResolver.ofClassLoading(host.getClassLoader()))));
+    }
+
+    /**
+     * Define the generated class as a hidden class if the lookup has full privilege access,
+     * i.e. the model is in the library's module, otherwise as a normal class of the model's
+     * class loader, which is unloaded along with the model.
+     */
+    private static Object instantiate(MethodHandles.Lookup lookup, byte[] bytes, MethodType constructorType,
+                                      Object provider, Object plan) throws Throwable {
+        MethodHandle constructor;
+        if (lookup.hasFullPrivilegeAccess()) {
+            MethodHandles.Lookup hiddenLookup = lookup.defineHiddenClass(bytes, true);
+            constructor = hiddenLookup.findConstructor(hiddenLookup.lookupClass(), constructorType);
+        } else {
+            constructor = lookup.findConstructor(lookup.defineClass(bytes), constructorType);
+        }
+        return constructor.invoke(provider, plan);
+    }
+
+    private static void logFallback(Class<?> modelType, String reason) {
+        if (FALLBACK_LOGGED.get(modelType).compareAndSet(false, true)) {
+            log.info("Generated code can't map {} because {}, fallback to reflection.", modelType, reason);
+        }
+    }
+
+    private static ClassDesc desc(Class<?> clazz) {
+        return clazz.describeConstable().orElseThrow();
+    }
+
+    private static MethodTypeDesc desc(Method method) {
+        return MethodType.methodType(method.getReturnType(), method.getParameterTypes())
+            .describeConstable().orElseThrow();
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Binding of record columns to the parameters of a model's constructor or static factory
+ * method, see {@link ReflectionUtils#findArgumentsInstantiator(Class)}.
+ * <p>
+ * Parameters are matched to columns by name. A parameter of a nested model type takes the
+ * columns prefixed by the parameter name, e.g. <code>addressCity</code> for parameter
+ * <code>address</code>, and the nested model is built from them before the outer one.
+ * Unmatched parameters get <code>null</code>, or zero for primitives.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+@Slf4j
+@Getter
+final class ConstructorBinding {
+
+    private static final MethodType CREATOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    /** whether unresolvable parameter names have been logged for the model */
+    private static final ClassValue<AtomicBoolean> UNRESOLVED_LOGGED = new ClassValue<>() {
+        @Override
+        protected AtomicBoolean computeValue(Class<?> type) {
+            return new AtomicBoolean();
+        }
+    };
+
+    private final Class<?> modelType;
+    /** spread instantiator of type <code>(Object[])Object</code> */
+    private final MethodHandle creator;
+    private final Argument[] arguments;
+
+    private ConstructorBinding(Class<?> modelType, MethodHandle creator, Argument[] arguments) {
+        this.modelType = modelType;
+        this.creator = creator;
+        this.arguments = arguments;
+    }
+
+    /**
+     * Bind constructor parameters of the model to columns.
+     *
+     * @param modelType the model class
+     * @param propertyNames camelCase names of the columns relative to the model, null if the
+     *                      column doesn't belong to the model
+     * @param consumed flags of columns already bound, updated with columns bound here
+     * @return the binding, or null if the model is not instantiated with arguments, or the
+     *         parameter names can't be resolved, in which case the model is created by its
+     *         instantiator and all columns are written to its properties
+     * @throws IllegalStateException if the instantiator is not accessible
+     */
+    static ConstructorBinding compile(Class<?> modelType, String[] propertyNames, boolean[] consumed) {
+        Executable instantiator = ReflectionUtils.findArgumentsInstantiator(modelType);
+        if (instantiator == null) return null;
+
+        String[] parameterNames = ReflectionUtils.getParameterNames(instantiator, modelType);
+        if (parameterNames == null) {
+            if (UNRESOLVED_LOGGED.get(modelType).compareAndSet(false, true)) {
+                log.warn("Cannot resolve parameter names of {}, compile with -parameters or annotate it with "
+                    + "@ConstructorProperties. Fallback to write columns to properties.", instantiator);
+            }
+            return null;
+        }
+
+        Parameter[] parameters = instantiator.getParameters();
+        Argument[] arguments = new Argument[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            arguments[i] = bindArgument(parameterNames[i], parameters[i], propertyNames, consumed);
+        }
+        return new ConstructorBinding(modelType, unreflect(instantiator), arguments);
+    }
+
+    private static Argument bindArgument(String name, Parameter parameter,
+                                         String[] propertyNames, boolean[] consumed) {
+        Class<?> type = parameter.getType();
+        Object defaultValue = type.isPrimitive() ? Array.get(Array.newInstance(type, 1), 0) : null;
+
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (!consumed[i] && name.equals(propertyNames[i])) {
+                consumed[i] = true;
+                return new ColumnArgument(i, parameter.getParameterizedType(), defaultValue);
+            }
+        }
+
+        if (ReflectionUtils.isNestable(type)) {
+            String[] nestedNames = nestedPropertyNames(name, propertyNames, consumed);
+            ConstructorBinding nested;
+            try {
+                nested = compile(type, nestedNames, consumed);
+            } catch (IllegalStateException e) {
+                // nested model can't be instantiated from columns, leave the parameter unbound
+                return new ColumnArgument(-1, parameter.getParameterizedType(), defaultValue);
+            }
+            if (nested != null) {
+                if (nested.isBound()) return new NestedArgument(nested);
+            } else {
+                List<PropertyColumn> columns = new ArrayList<>();
+                for (int i = 0; i < nestedNames.length; i++) {
+                    if (nestedNames[i] == null) continue;
+                    ReflectionUtils.AccessorPath path = ReflectionUtils.findMatchModelAccessorPath(type, nestedNames[i]);
+                    if (path == null || !path.getAccessor().isWritable()) continue;
+                    consumed[i] = true;
+                    columns.add(new PropertyColumn(i, path, path.getAccessor().getGenericType()));
+                }
+                if (!columns.isEmpty()) {
+                    return new PropertiesArgument(type, columns.toArray(new PropertyColumn[0]));
+                }
+            }
+        }
+        return new ColumnArgument(-1, parameter.getParameterizedType(), defaultValue);
+    }
+
+    private static String[] nestedPropertyNames(String prefix, String[] propertyNames, boolean[] consumed) {
+        String[] nestedNames = new String[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            String name = propertyNames[i];
+            if (consumed[i] || name == null || name.length() <= prefix.length() || !name.startsWith(prefix)
+                || !Character.isUpperCase(name.charAt(prefix.length()))) continue;
+            nestedNames[i] = StringUtils.uncapitalize(name.substring(prefix.length()));
+        }
+        return nestedNames;
+    }
+
+    private static MethodHandle unreflect(Executable instantiator) {
+        MethodHandle handle;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(
+                instantiator.getDeclaringClass(), MethodHandles.lookup());
+            handle = instantiator instanceof Constructor<?> constructor
+                ? lookup.unreflectConstructor(constructor)
+                : lookup.unreflect((Method) instantiator);
+        } catch (IllegalAccessException e) {
+            try {
+                instantiator.setAccessible(true);
+                handle = instantiator instanceof Constructor<?> constructor
+                    ? MethodHandles.lookup().unreflectConstructor(constructor)
+                    : MethodHandles.lookup().unreflect((Method) instantiator);
+            } catch (IllegalAccessException | RuntimeException ex) {
+                throw new IllegalStateException("Instantiator " + instantiator + " is not accessible", ex);
+            }
+        }
+        return handle.asSpreader(Object[].class, instantiator.getParameterCount()).asType(CREATOR_TYPE);
+    }
+
+    /**
+     * @return whether any parameter is bound to a column
+     */
+    boolean isBound() {
+        for (Argument argument : arguments) {
+            if (!(argument instanceof ColumnArgument column) || column.index() >= 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Collect target types of columns bound to arguments, including those of nested models,
+     * so converters can be bound to them ahead of time.
+     *
+     * @param argumentTypes target types indexed by column, filled for bound columns
+     */
+    void collectArgumentTypes(Type[] argumentTypes) {
+        for (Argument argument : arguments) {
+            switch (argument) {
+                case ColumnArgument column -> {
+                    if (column.index() >= 0) argumentTypes[column.index()] = column.type();
+                }
+                case NestedArgument nested -> nested.binding().collectArgumentTypes(argumentTypes);
+                case PropertiesArgument properties -> {
+                    for (PropertyColumn column : properties.columns()) {
+                        argumentTypes[column.index()] = column.propertyType();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Create model instance from the record values.
+     *
+     * @param values the record values, indexed by column
+     * @param converter converts a non-null column value to the argument type
+     * @return the model instance
+     */
+    Object instantiate(Object[] values, ColumnConverter converter) {
+        Object[] args = new Object[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            args[i] = arguments[i].resolve(values, converter);
+        }
+        try {
+            return creator.invokeExact(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Instantiate " + modelType + " failed.", e);
+        }
+    }
+
+    /**
+     * Converter of column values bound to arguments.
+     */
+    @FunctionalInterface
+    interface ColumnConverter {
+        /**
+         * @param index the column index
+         * @param jVal the non-null column value
+         * @param type the target type
+         * @return the converted value
+         */
+        Object convert(int index, Object jVal, Type type);
+    }
+
+    /**
+     * Argument of a constructor parameter.
+     */
+    sealed interface Argument permits ColumnArgument, NestedArgument, PropertiesArgument {
+        /** whether any column bound to the argument is not null */
+        boolean hasValue(Object[] values);
+
+        Object resolve(Object[] values, ColumnConverter converter);
+    }
+
+    /**
+     * Argument converted from a column.
+     *
+     * @param index column index in the record, -1 if the parameter is not bound
+     * @param type generic type of the parameter
+     * @param defaultValue value if the column is null or not bound
+     */
+    record ColumnArgument(int index, Type type, Object defaultValue) implements Argument {
+        @Override
+        public boolean hasValue(Object[] values) {
+            return index >= 0 && values[index] != null;
+        }
+
+        @Override
+        public Object resolve(Object[] values, ColumnConverter converter) {
+            Object value = index >= 0 && values[index] != null ? converter.convert(index, values[index], type) : null;
+            return value != null ? value : defaultValue;
+        }
+    }
+
+    /**
+     * Argument created by the nested model's constructor, null if all its columns are null.
+     */
+    record NestedArgument(ConstructorBinding binding) implements Argument {
+        @Override
+        public boolean hasValue(Object[] values) {
+            for (Argument argument : binding.arguments) {
+                if (argument.hasValue(values)) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Object resolve(Object[] values, ColumnConverter converter) {
+            return hasValue(values) ? binding.instantiate(values, converter) : null;
+        }
+    }
+
+    /**
+     * Argument created by the nested model's no-arg instantiator and filled by its accessors,
+     * null if all its columns are null.
+     */
+    record PropertiesArgument(Class<?> type, PropertyColumn[] columns) implements Argument {
+        @Override
+        public boolean hasValue(Object[] values) {
+            for (PropertyColumn column : columns) {
+                if (values[column.index()] != null) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Object resolve(Object[] values, ColumnConverter converter) {
+            Object instance = null;
+            for (PropertyColumn column : columns) {
+                Object jVal = values[column.index()];
+                if (jVal == null) continue;
+                Object converted = converter.convert(column.index(), jVal, column.propertyType());
+                if (converted == null) continue;
+                if (instance == null) instance = ReflectionUtils.createInstance(type);
+                column.path().setValue(instance, converted);
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Column bound to a property of a nested model.
+     */
+    record PropertyColumn(int index, ReflectionUtils.AccessorPath path, Type propertyType) {}
+}
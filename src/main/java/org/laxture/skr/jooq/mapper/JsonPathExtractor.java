@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Extracts values of a set of JSON paths from a document in one pass of a streaming
+ * parser. The paths are compiled into a tree, the parser only descends into members and
+ * elements on the tree and skips the others by {@link JsonParser#skipChildren()}, and stops
+ * once all paths are found.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+final class JsonPathExtractor {
+
+    private final ObjectMapper objectMapper;
+    private final Node root = new Node();
+    private final int pathCount;
+
+    /**
+     * @param objectMapper the object mapper to create parsers and value readers
+     * @param paths the JSON paths, e.g. <code>$.settings.theme</code>
+     * @param valueTypes generic types the values are read as, indexed by path
+     */
+    JsonPathExtractor(ObjectMapper objectMapper, String[] paths, Type[] valueTypes) {
+        this.objectMapper = objectMapper;
+        this.pathCount = paths.length;
+        for (int i = 0; i < paths.length; i++) {
+            Node node = root;
+            for (Object segment : parse(paths[i])) {
+                node = segment instanceof String name ? node.member(name) : node.element((Integer) segment);
+            }
+            if (node.slot >= 0) throw new IllegalArgumentException("Duplicated JSON path " + paths[i]);
+            node.slot = i;
+            node.reader = objectMapper.readerFor(objectMapper.getTypeFactory().constructType(valueTypes[i]));
+        }
+    }
+
+    /**
+     * Extract values of the paths from JSON data. Absent paths and null values are not
+     * reported.
+     *
+     * @param json the JSON data
+     * @param sink receives the extracted value and the index of its path
+     */
+    void extract(String json, ObjIntConsumer<Object> sink) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (parser.nextToken() == null) return;
+            walk(parser, root, new int[] {pathCount}, sink);
+        }
+    }
+
+    /**
+     * Walk the value the parser is at, leaving the parser at its last token.
+     *
+     * @param remaining single element array of paths not found yet
+     */
+    private void walk(JsonParser parser, Node node, int[] remaining, ObjIntConsumer<Object> sink) throws IOException {
+        if (node.slot >= 0) {
+            if (node.members == null && node.elements == null) {
+                report(node, node.reader.readValue(parser), remaining, sink);
+            } else {
+                // value of the path is also an ancestor of other paths, read it as a tree once
+                walkTree(parser.readValueAsTree(), node, remaining, sink);
+            }
+            return;
+        }
+
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT && node.members != null) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Node child = node.members.get(parser.currentName());
+                parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    walk(parser, child, remaining, sink);
+                    // the rest of the document is dropped with the parser
+                    if (remaining[0] == 0) return;
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY && node.elements != null) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                Node child = index < node.elements.length ? node.elements[index] : null;
+                index++;
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    walk(parser, child, remaining, sink);
+                    if (remaining[0] == 0) return;
+                }
+            }
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private void walkTree(JsonNode tree, Node node, int[] remaining, ObjIntConsumer<Object> sink) throws IOException {
+        if (tree == null || tree.isMissingNode()) return;
+        if (node.slot >= 0) report(node, node.reader.readValue(tree), remaining, sink);
+        if (node.members != null && tree.isObject()) {
+            for (Map.Entry<String, Node> entry : node.members.entrySet()) {
+                walkTree(tree.get(entry.getKey()), entry.getValue(), remaining, sink);
+            }
+        }
+        if (node.elements != null && tree.isArray()) {
+            for (int i = 0; i < node.elements.length; i++) {
+                if (node.elements[i] != null) walkTree(tree.get(i), node.elements[i], remaining, sink);
+            }
+        }
+    }
+
+    private static void report(Node node, Object value, int[] remaining, ObjIntConsumer<Object> sink) {
+        remaining[0]--;
+        if (value != null) sink.accept(value, node.slot);
+    }
+
+    /**
+     * Parse JSON path into segments, member names as String and array indexes as Integer.
+     */
+    static Object[] parse(String path) {
+        int length = path.length();
+        int i = path.startsWith("$") ? 1 : 0;
+        Object[] segments = new Object[0];
+        while (i < length) {
+            char c = path.charAt(i);
+            int end;
+            Object segment;
+            if (c == '.') {
+                end = i + 1;
+                while (end < length && path.charAt(end) != '.' && path.charAt(end) != '[') end++;
+                if (end == i + 1) throw invalidPath(path);
+                segment = path.substring(i + 1, end);
+            } else if (c == '[' && i + 1 < length && (path.charAt(i + 1) == '\'' || path.charAt(i + 1) == '"')) {
+                char quote = path.charAt(i + 1);
+                int close = path.indexOf(quote, i + 2);
+                if (close < 0 || close + 1 >= length || path.charAt(close + 1) != ']') throw invalidPath(path);
+                segment = path.substring(i + 2, close);
+                end = close + 2;
+            } else if (c == '[') {
+                int close = path.indexOf(']', i);
+                if (close < 0) throw invalidPath(path);
+                try {
+                    segment = Integer.parseInt(path.substring(i + 1, close).trim());
+                } catch (NumberFormatException e) {
+                    throw invalidPath(path);
+                }
+                if ((Integer) segment < 0) throw invalidPath(path);
+                end = close + 1;
+            } else {
+                throw invalidPath(path);
+            }
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            segments[segments.length - 1] = segment;
+            i = end;
+        }
+        return segments;
+    }
+
+    private static IllegalArgumentException invalidPath(String path) {
+        return new IllegalArgumentException("Unsupported JSON path " + path);
+    }
+
+    /**
+     * Node of the path tree, a path ends at the node if <code>slot</code> is set.
+     */
+    private static final class Node {
+        private Map<String, Node> members;
+        private Node[] elements;
+        private int slot = -1;
+        private ObjectReader reader;
+
+        private Node member(String name) {
+            if (members == null) members = new LinkedHashMap<>();
+            return members.computeIfAbsent(name, key -> new Node());
+        }
+
+        private Node element(int index) {
+            if (elements == null) elements = new Node[index + 1];
+            if (elements.length <= index) elements = Arrays.copyOf(elements, index + 1);
+            if (elements[index] == null) elements[index] = new Node();
+            return elements[index];
+        }
+    }
+}
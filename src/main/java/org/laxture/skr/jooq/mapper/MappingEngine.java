@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper;
+
+/**
+ * Engine used by the record mapper and unmapper to access model properties.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+public enum MappingEngine {
+
+    /**
+     * Access model properties through pre-resolved accessors of the mapping plan.
+     */
+    REFLECTION,
+
+    /**
+     * Generate a dedicated mapper class per record shape and model class, which calls
+     * public setters, getters and constructors directly. Falls back to {@link #REFLECTION}
+     * for the properties or models that generated code cannot access.
+     */
+    BYTECODE
+
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper;
+
+import lombok.Getter;
+import org.jooq.Field;
+import org.jooq.JSON;
+import org.jooq.JSONB;
+import org.jooq.RecordType;
+import org.laxture.skr.jooq.mapper.annotation.JsonPath;
+import org.laxture.skr.jooq.mapper.annotation.LeftoverCollector;
+import org.laxture.skr.jooq.mapper.misc.NamingUtils;
+import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable mapping plan of a record shape to a model class.
+ * <p>
+ * Everything that only depends on the record's fields and the model class, e.g. column
+ * name translation and accessor lookup, is resolved once when the plan is compiled, so
+ * mapping a row only has to walk the pre-bound column bindings.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+@Getter
+final class MappingPlan<E> {
+
+    private final Class<? extends E> modelType;
+    /** model is a {@link Map}, all columns are put by their camelCase names. */
+    private final boolean mapModel;
+    /** camelCase property names, indexed by column */
+    private final String[] propertyNames;
+    /** jOOQ value types, indexed by column */
+    private final Class<?>[] columnTypes;
+    /** column bindings, indexed by column. null if no model property matched. */
+    private final ColumnBinding[] bindings;
+    /** indexes of columns not matched to any model property */
+    private final int[] leftoverIndexes;
+    /** whether leftover values are JSON, indexed by position in {@link #leftoverIndexes} */
+    private final boolean[] jsonLeftovers;
+    /** accessor of the Map field annotated with {@link LeftoverCollector}, null if absent */
+    private final ReflectionUtils.Accessor leftoverAccessor;
+    /** nested objects shared by bound columns, slot <code>i + 1</code> of the per-row owners */
+    private final NestedSlot[] nestedSlots;
+    /** constructor arguments bound to columns, null if the model is created without arguments */
+    private final ConstructorBinding constructorBinding;
+    /** properties annotated with {@link JsonPath}, grouped by their source column */
+    private final JsonPathBinding[] jsonPathBindings;
+
+    private MappingPlan(Class<? extends E> modelType, boolean mapModel, String[] propertyNames,
+                        Class<?>[] columnTypes, ColumnBinding[] bindings, int[] leftoverIndexes,
+                        NestedSlot[] nestedSlots, ConstructorBinding constructorBinding,
+                        JsonPathBinding[] jsonPathBindings) {
+        this.modelType = modelType;
+        this.mapModel = mapModel;
+        this.propertyNames = propertyNames;
+        this.columnTypes = columnTypes;
+        this.bindings = bindings;
+        this.leftoverIndexes = leftoverIndexes;
+        this.jsonLeftovers = new boolean[leftoverIndexes.length];
+        for (int i = 0; i < leftoverIndexes.length; i++) {
+            Class<?> columnType = columnTypes[leftoverIndexes[i]];
+            jsonLeftovers[i] = JSON.class.equals(columnType) || JSONB.class.equals(columnType);
+        }
+        this.leftoverAccessor = mapModel ? null : findLeftoverAccessor(modelType);
+        this.nestedSlots = nestedSlots;
+        this.constructorBinding = constructorBinding;
+        this.jsonPathBindings = jsonPathBindings;
+    }
+
+    static <E> MappingPlan<E> compile(RecordType<?> recordType,
+                                      Class<? extends E> modelType,
+                                      TableFieldCaseType tableFieldCaseType) {
+        Field<?>[] fields = recordType.fields();
+        String[] propertyNames = new String[fields.length];
+        Class<?>[] columnTypes = new Class<?>[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            propertyNames[i] = NamingUtils.convertToCamelCase(tableFieldCaseType, fields[i].getName());
+            columnTypes[i] = fields[i].getType();
+        }
+
+        ColumnBinding[] bindings = new ColumnBinding[fields.length];
+        if (Map.class.isAssignableFrom(modelType)) {
+            return new MappingPlan<>(modelType, true, propertyNames, columnTypes, bindings,
+                new int[0], new NestedSlot[0], null, new JsonPathBinding[0]);
+        }
+
+        // columns bound to constructor parameters, the rest are written to properties afterward
+        boolean[] consumed = new boolean[fields.length];
+        ConstructorBinding constructorBinding = ConstructorBinding.compile(modelType, propertyNames, consumed);
+        JsonPathBinding[] jsonPathBindings = compileJsonPaths(modelType, fields, propertyNames);
+
+        int[] leftoverIndexes = new int[fields.length];
+        int leftoverCount = 0;
+        // nested object paths, e.g. "address.userProfile", to their owner slots
+        Map<String, Integer> slotIndexes = new HashMap<>();
+        List<NestedSlot> nestedSlots = new ArrayList<>();
+        for (int i = 0; i < fields.length; i++) {
+            if (consumed[i]) continue;
+            ReflectionUtils.AccessorPath path =
+                ReflectionUtils.findMatchModelAccessorPath(modelType, propertyNames[i]);
+            if (path != null && constructorBinding != null && !isWritable(path)) path = null;
+            if (path == null) {
+                // a column read by JSON paths is not left over
+                if (!isJsonPathSource(jsonPathBindings, i)) leftoverIndexes[leftoverCount++] = i;
+                continue;
+            }
+            int ownerSlot = 0;
+            StringBuilder nestedPath = new StringBuilder();
+            for (ReflectionUtils.Accessor nestedAccessor : path.getNestedAccessors()) {
+                nestedPath.append('.').append(nestedAccessor.getName());
+                int parentSlot = ownerSlot;
+                ownerSlot = slotIndexes.computeIfAbsent(nestedPath.toString(), key -> {
+                    nestedSlots.add(new NestedSlot(parentSlot, nestedAccessor));
+                    return nestedSlots.size();
+                });
+            }
+            bindings[i] = new ColumnBinding(i, path, path.getAccessor().getGenericType(), ownerSlot);
+        }
+        return new MappingPlan<>(modelType, false, propertyNames, columnTypes, bindings,
+            Arrays.copyOf(leftoverIndexes, leftoverCount), nestedSlots.toArray(new NestedSlot[0]),
+            constructorBinding, jsonPathBindings);
+    }
+
+    /**
+     * Group writable properties annotated with {@link JsonPath} by their source columns,
+     * properties whose source column is absent from the record are skipped.
+     */
+    private static JsonPathBinding[] compileJsonPaths(Class<?> modelType, Field<?>[] fields, String[] propertyNames) {
+        Map<Integer, List<java.lang.reflect.Field>> annotatedFields = new LinkedHashMap<>();
+        for (java.lang.reflect.Field field : ReflectionUtils.getAllFields(modelType)) {
+            JsonPath jsonPath = field.getAnnotation(JsonPath.class);
+            if (jsonPath == null) continue;
+            for (int i = 0; i < fields.length; i++) {
+                if (jsonPath.source().equals(propertyNames[i]) || jsonPath.source().equals(fields[i].getName())) {
+                    annotatedFields.computeIfAbsent(i, key -> new ArrayList<>()).add(field);
+                    break;
+                }
+            }
+        }
+
+        ReflectionUtils.PropertyTable propertyTable = ReflectionUtils.getPropertyTable(modelType);
+        List<JsonPathBinding> jsonPathBindings = new ArrayList<>();
+        for (Map.Entry<Integer, List<java.lang.reflect.Field>> entry : annotatedFields.entrySet()) {
+            List<String> paths = new ArrayList<>();
+            List<ReflectionUtils.Accessor> accessors = new ArrayList<>();
+            for (java.lang.reflect.Field field : entry.getValue()) {
+                ReflectionUtils.Accessor accessor = propertyTable.getAccessor(field.getName());
+                if (accessor == null || !accessor.isWritable()) continue;
+                paths.add(field.getAnnotation(JsonPath.class).value());
+                accessors.add(accessor);
+            }
+            if (paths.isEmpty()) continue;
+            jsonPathBindings.add(new JsonPathBinding(entry.getKey(), paths.toArray(new String[0]),
+                accessors.toArray(new ReflectionUtils.Accessor[0])));
+        }
+        return jsonPathBindings.toArray(new JsonPathBinding[0]);
+    }
+
+    private static boolean isJsonPathSource(JsonPathBinding[] jsonPathBindings, int index) {
+        for (JsonPathBinding jsonPathBinding : jsonPathBindings) {
+            if (jsonPathBinding.index() == index) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Find accessor of the Map field annotated with {@link LeftoverCollector}.
+     *
+     * @param modelType the model class
+     * @return the accessor, or null if absent
+     */
+    static ReflectionUtils.Accessor findLeftoverAccessor(Class<?> modelType) {
+        return ReflectionUtils.getPropertyTable(modelType).getLeftoverCollector();
+    }
+
+    private static boolean isWritable(ReflectionUtils.AccessorPath path) {
+        if (!path.getAccessor().isWritable()) return false;
+        for (ReflectionUtils.Accessor nestedAccessor : path.getNestedAccessors()) {
+            if (!nestedAccessor.isWritable()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return per-row owner slots, slot 0 is the model instance, nested objects are filled on demand
+     */
+    Object[] newOwners(Object modelInstance) {
+        Object[] owners = new Object[nestedSlots.length + 1];
+        owners[0] = modelInstance;
+        return owners;
+    }
+
+    /**
+     * Binding of a record column to a (possibly nested) model property.
+     *
+     * @param index column index in the record
+     * @param path accessor path of the model property
+     * @param propertyType generic type of the model property, used for value conversion
+     * @param ownerSlot slot of the property owner in the per-row owners, 0 for the model itself
+     */
+    record ColumnBinding(
+        int index,
+        ReflectionUtils.AccessorPath path,
+        Type propertyType,
+        int ownerSlot
+    ) {}
+
+    /**
+     * Nested object shared by the columns bound under it.
+     *
+     * @param parentSlot slot of the object owning the nested object
+     * @param accessor accessor of the nested object on its parent
+     */
+    record NestedSlot(
+        int parentSlot,
+        ReflectionUtils.Accessor accessor
+    ) {}
+
+    /**
+     * Properties read by JSON paths from the same column.
+     *
+     * @param index index of the source column in the record
+     * @param paths the JSON paths
+     * @param accessors accessors of the model properties, indexed by path
+     */
+    record JsonPathBinding(
+        int index,
+        String[] paths,
+        ReflectionUtils.Accessor[] accessors
+    ) {}
+
+    /**
+     * Cache key of a mapping plan, identified by the record's field signature and model class.
+     */
+    static final class Key {
+        private final Class<?> modelType;
+        private final String[] fieldNames;
+        private final Class<?>[] fieldTypes;
+        private final int hash;
+
+        private Key(Class<?> modelType, String[] fieldNames, Class<?>[] fieldTypes) {
+            this.modelType = modelType;
+            this.fieldNames = fieldNames;
+            this.fieldTypes = fieldTypes;
+            this.hash = 31 * (31 * modelType.hashCode() + Arrays.hashCode(fieldNames))
+                + Arrays.hashCode(fieldTypes);
+        }
+
+        static Key of(RecordType<?> recordType, Class<?> modelType) {
+            Field<?>[] fields = recordType.fields();
+            String[] fieldNames = new String[fields.length];
+            Class<?>[] fieldTypes = new Class<?>[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                fieldNames[i] = fields[i].getName();
+                fieldTypes[i] = fields[i].getType();
+            }
+            return new Key(modelType, fieldNames, fieldTypes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key that = (Key) o;
+            return modelType == that.modelType
+                && Arrays.equals(fieldNames, that.fieldNames)
+                && Arrays.equals(fieldTypes, that.fieldTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
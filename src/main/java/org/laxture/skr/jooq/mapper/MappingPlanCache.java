@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache of mappers compiled for a record shape and model class.
+ * <p>
+ * Entries are held per model class by a {@link ClassValue}, so they don't prevent the model
+ * class from being unloaded, e.g. by plugin or devtools class loaders. Each model class keeps
+ * at most {@link #MAX_SHAPES_PER_MODEL} record shapes, an arbitrary one is evicted when a new
+ * shape exceeds it, so dynamic selects can't grow the cache without limit.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+final class MappingPlanCache<V> {
+
+    static final int MAX_SHAPES_PER_MODEL = 256;
+
+    private volatile ClassValue<Map<MappingPlan.Key, V>> shapesByModel = newShapesByModel();
+
+    V get(Class<?> modelType, MappingPlan.Key key, Function<MappingPlan.Key, ? extends V> factory) {
+        Map<MappingPlan.Key, V> shapes = shapesByModel.get(modelType);
+        V value = shapes.get(key);
+        if (value != null) return value;
+
+        if (shapes.size() >= MAX_SHAPES_PER_MODEL) {
+            Iterator<MappingPlan.Key> iterator = shapes.keySet().iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return shapes.computeIfAbsent(key, factory);
+    }
+
+    /**
+     * Drop all cached entries.
+     */
+    void clear() {
+        shapesByModel = newShapesByModel();
+    }
+
+    private static <V> ClassValue<Map<MappingPlan.Key, V>> newShapesByModel() {
+        return new ClassValue<>() {
+            @Override
+            protected Map<MappingPlan.Key, V> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.jooq.JSON;
+import org.jooq.JSONB;
+import org.jooq.Record;
+import org.jooq.RecordMapper;
+import org.laxture.skr.jooq.mapper.hook.MappingHook;
+import org.laxture.skr.jooq.mapper.misc.MapperConversionException;
+import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Base of record mappers driven by a {@link MappingPlan}.
+ * <p>
+ * Subclasses only decide how bound columns are written to the model instance, which is
+ * either by walking the plan's accessors, or by code generated for the plan.
+ * <p>
+ * It's public only so that code generated into the model's package can extend it, see
+ * {@link BytecodeMapperFactory}.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+@Slf4j
+public abstract class PlannedRecordMapper<R extends Record, E> implements RecordMapper<R, E> {
+
+    /** whether unmapped JSON paths have been logged for the model */
+    private static final ClassValue<AtomicBoolean> JSON_PATHS_UNMAPPED_LOGGED = new ClassValue<>() {
+        @Override
+        protected AtomicBoolean computeValue(Class<?> type) {
+            return new AtomicBoolean();
+        }
+    };
+
+    protected final SkrRecordMapperProvider provider;
+    protected final MappingPlan<E> plan;
+    private final MappingPlan.ColumnBinding[] bindings;
+    private final Supplier<? extends E> instantiator;
+    /**
+     * converters pre-bound to columns bound to properties or constructor arguments, or to all
+     * columns of a Map model, indexed by column
+     */
+    private final BoundConverter[] converters;
+    private final ConstructorBinding.ColumnConverter argumentConverter;
+    /** extractors of the plan's JSON path bindings, empty if there is no object mapper */
+    private final JsonPathExtractor[] jsonPathExtractors;
+
+    protected PlannedRecordMapper(SkrRecordMapperProvider provider, MappingPlan<E> plan) {
+        this.provider = provider;
+        this.plan = plan;
+        this.bindings = plan.getBindings();
+        this.instantiator = ReflectionUtils.getInstantiator(plan.getModelType());
+        this.converters = new BoundConverter[bindings.length];
+        Class<?>[] columnTypes = plan.getColumnTypes();
+        Type[] argumentTypes = new Type[bindings.length];
+        if (plan.getConstructorBinding() != null) plan.getConstructorBinding().collectArgumentTypes(argumentTypes);
+        for (int i = 0; i < converters.length; i++) {
+            Type propertyType = plan.isMapModel() ? Object.class
+                : bindings[i] != null ? bindings[i].propertyType() : argumentTypes[i];
+            if (propertyType == null) continue;
+            converters[i] = BoundConverter.toModel(provider.getConverterRegistry(), propertyType, columnTypes[i]);
+        }
+        this.argumentConverter = (index, jVal, type) -> provider.convertFieldValue(jVal, type, converters[index]);
+        this.jsonPathExtractors = createJsonPathExtractors(provider.getObjectMapper(), plan);
+    }
+
+    private static JsonPathExtractor[] createJsonPathExtractors(ObjectMapper objectMapper, MappingPlan<?> plan) {
+        MappingPlan.JsonPathBinding[] jsonPathBindings = plan.getJsonPathBindings();
+        if (objectMapper == null) {
+            if (jsonPathBindings.length > 0
+                && JSON_PATHS_UNMAPPED_LOGGED.get(plan.getModelType()).compareAndSet(false, true)) {
+                log.warn("@JsonPath properties of {} are not mapped, JSON paths are only extracted "
+                    + "with JacksonJsonCodec", plan.getModelType().getName());
+            }
+            return new JsonPathExtractor[0];
+        }
+        JsonPathExtractor[] extractors = new JsonPathExtractor[jsonPathBindings.length];
+        for (int i = 0; i < extractors.length; i++) {
+            ReflectionUtils.Accessor[] accessors = jsonPathBindings[i].accessors();
+            Type[] valueTypes = new Type[accessors.length];
+            for (int j = 0; j < accessors.length; j++) {
+                valueTypes[j] = accessors[j].getGenericType();
+            }
+            extractors[i] = new JsonPathExtractor(objectMapper, jsonPathBindings[i].paths(), valueTypes);
+        }
+        return extractors;
+    }
+
+    MappingPlan<E> getPlan() {
+        return plan;
+    }
+
+    @Override
+    public E map(R record) {
+        if (record == null) return null;
+        // read all values by index in one pass, instead of resolving each Field against the record
+        Object[] values = new Object[record.size()];
+        readValues(record, values);
+        return mapValues(values);
+    }
+
+    /**
+     * Map records of the same shape as this mapper's plan. The scratch array record values
+     * are read into is shared by all rows.
+     *
+     * @param records the records
+     * @return the mapped models, null for null records
+     */
+    List<E> mapAll(List<? extends R> records) {
+        List<E> models = new ArrayList<>(records.size());
+        Object[] values = newValues();
+        for (R record : records) {
+            models.add(map(record, values));
+        }
+        return models;
+    }
+
+    /**
+     * Map a record of the same shape as this mapper's plan.
+     *
+     * @param record the record
+     * @param values scratch array the record values are read into, sized to the plan's columns
+     * @return the mapped model, null for null record
+     */
+    E map(R record, Object[] values) {
+        if (record == null) return null;
+        readValues(record, values);
+        return mapValues(values);
+    }
+
+    /**
+     * @return a scratch array to read record values into, see {@link #map(Record, Object[])}
+     */
+    Object[] newValues() {
+        return new Object[plan.getPropertyNames().length];
+    }
+
+    @SuppressWarnings("unchecked")
+    private E mapValues(Object[] values) {
+        Class<? extends E> modelType = plan.getModelType();
+
+        if (values.length == 1) {
+            Object converted = provider.convertFieldValue(values[0], modelType);
+            if (modelType.isInstance(converted)) {
+                return (E) converted;
+            }
+        }
+
+        E modelInstance = newInstance(values);
+
+        // Handle Map type directly without reflection
+        if (plan.isMapModel()) {
+            Map<String, Object> mapInstance = (Map<String, Object>) modelInstance;
+            String[] propertyNames = plan.getPropertyNames();
+            for (int i = 0; i < values.length; i++) {
+                Object converted = provider.convertFieldValue(values[i], Object.class, converters[i]);
+                if (converted != null) {
+                    mapInstance.put(propertyNames[i], converted);
+                }
+            }
+            return modelInstance;
+        }
+
+        mapColumns(values, plan.newOwners(modelInstance));
+        if (jsonPathExtractors.length > 0) extractJsonPaths(values, modelInstance);
+        provider.handleLeftoverCollector(modelInstance, values, plan);
+
+        if (modelInstance instanceof MappingHook hook) {
+            hook.postMapping();
+        }
+        return modelInstance;
+    }
+
+    private void extractJsonPaths(Object[] values, Object modelInstance) {
+        MappingPlan.JsonPathBinding[] jsonPathBindings = plan.getJsonPathBindings();
+        for (int i = 0; i < jsonPathExtractors.length; i++) {
+            Object jVal = values[jsonPathBindings[i].index()];
+            if (jVal == null) continue;
+            ReflectionUtils.Accessor[] accessors = jsonPathBindings[i].accessors();
+            try {
+                jsonPathExtractors[i].extract(jsonData(jVal),
+                    (value, slot) -> accessors[slot].setValue(modelInstance, value));
+            } catch (IOException e) {
+                throw new MapperConversionException(jVal.getClass(), plan.getModelType(), e);
+            }
+        }
+    }
+
+    private static String jsonData(Object jVal) {
+        if (jVal instanceof JSON json) return json.data();
+        if (jVal instanceof JSONB jsonb) return jsonb.data();
+        return jVal.toString();
+    }
+
+    private static void readValues(Record record, Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = record.get(i);
+        }
+    }
+
+    /**
+     * Create model instance, by the bound constructor if there is one.
+     *
+     * @param values the record values, indexed by column
+     * @return the model instance
+     */
+    @SuppressWarnings("unchecked")
+    protected E newInstance(Object[] values) {
+        ConstructorBinding constructorBinding = plan.getConstructorBinding();
+        if (constructorBinding != null) {
+            return (E) constructorBinding.instantiate(values, argumentConverter);
+        }
+        return instantiator.get();
+    }
+
+    /**
+     * Write values of bound columns to the model instance.
+     *
+     * @param values the record values, indexed by column
+     * @param owners the per-row owner slots, the model instance is at slot 0
+     */
+    protected abstract void mapColumns(Object[] values, Object[] owners);
+
+    /**
+     * Convert value of a bound column to its model property type.
+     *
+     * @param index the column index
+     * @param jVal the non-null column value
+     * @return the converted value
+     */
+    protected final Object convert(int index, Object jVal) {
+        return provider.convertFieldValue(jVal, bindings[index].propertyType(), converters[index]);
+    }
+
+    /**
+     * Write converted value of a bound column to its owner, nested owners are read or
+     * created once per row and shared by all columns under them.
+     *
+     * @param index the column index
+     * @param owners the per-row owner slots
+     * @param value the converted value
+     */
+    protected final void assign(int index, Object[] owners, Object value) {
+        MappingPlan.ColumnBinding binding = bindings[index];
+        binding.path().getAccessor().setValue(owner(owners, binding.ownerSlot()), value);
+    }
+
+    private Object owner(Object[] owners, int slot) {
+        Object owner = owners[slot];
+        if (owner != null) return owner;
+
+        MappingPlan.NestedSlot nestedSlot = plan.getNestedSlots()[slot - 1];
+        Object parent = owner(owners, nestedSlot.parentSlot());
+        ReflectionUtils.Accessor accessor = nestedSlot.accessor();
+        owner = accessor.getValue(parent);
+        if (owner == null) {
+            owner = ReflectionUtils.createInstance(accessor.getType());
+            accessor.setValue(parent, owner);
+        }
+        owners[slot] = owner;
+        return owner;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper;
+
+import lombok.NonNull;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.RecordUnmapper;
+import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
+
+import java.util.Map;
+
+/**
+ * Base of record unmappers driven by an {@link UnmappingPlan}.
+ * <p>
+ * It's public only so that code generated into the model's package can extend it, see
+ * {@link BytecodeMapperFactory}.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+public abstract class PlannedRecordUnmapper<E, R extends Record> implements RecordUnmapper<E, R> {
+
+    protected final SkrRecordUnmapperProvider provider;
+    protected final UnmappingPlan<E> plan;
+    private final UnmappingPlan.PropertyBinding[] bindings;
+    private final Field<?>[] fields;
+    /** converters pre-bound to bound properties, indexed by column */
+    private final BoundConverter[] converters;
+
+    protected PlannedRecordUnmapper(SkrRecordUnmapperProvider provider, UnmappingPlan<E> plan) {
+        this.provider = provider;
+        this.plan = plan;
+        this.bindings = plan.getBindings();
+        this.fields = plan.getFields();
+        this.converters = new BoundConverter[fields.length];
+        for (int i = 0; i < converters.length; i++) {
+            if (bindings[i] == null || bindings[i].transientProperty()) continue;
+            Class<?> propertyClass = ReflectionUtils.toBoxedClass(bindings[i].path().getAccessor().getType());
+            converters[i] = BoundConverter.toJooq(provider.getConverterRegistry(), propertyClass, fields[i].getType());
+        }
+    }
+
+    UnmappingPlan<E> getPlan() {
+        return plan;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public R unmap(@NonNull E model) {
+        R record = (R) provider.newRecord(fields);
+        unmapColumns(model, record);
+        return record;
+    }
+
+    /**
+     * Write model values of all columns to the record.
+     *
+     * @param model the model to be unmapped
+     * @param record the new record
+     */
+    protected abstract void unmapColumns(Object model, Record record);
+
+    /**
+     * Read model value of a column through its accessor path. If the property is not found,
+     * or its nested owner is null, the value is looked up from the leftover collector.
+     *
+     * @param model the model
+     * @param index the column index
+     * @return the model value, or null if the property is transient
+     */
+    protected final Object readValue(Object model, int index) {
+        UnmappingPlan.PropertyBinding binding = bindings[index];
+        if (binding != null) {
+            Object owner = binding.path().getOwner(model, false);
+            if (owner != null) {
+                return binding.transientProperty() ? null : binding.path().getAccessor().getValue(owner);
+            }
+        }
+        return findValueFromLeftoverCollector(model, plan.getPropertyNames()[index]);
+    }
+
+    /**
+     * Convert model value to the column type and set it to the record.
+     *
+     * @param record the record
+     * @param index the column index
+     * @param mVal the model value, nothing is set if null
+     */
+    @SuppressWarnings("unchecked")
+    protected final void writeValue(Record record, int index, Object mVal) {
+        if (mVal == null) return;
+        Field<?> field = fields[index];
+        Object jooqValue = provider.convertFieldValue(mVal, field.getType(), converters[index]);
+        record.set((Field<Object>) field, jooqValue);
+    }
+
+    private Object findValueFromLeftoverCollector(Object model, String fieldName) {
+        ReflectionUtils.Accessor leftoverAccessor = plan.getLeftoverAccessor();
+        if (leftoverAccessor == null) return null;
+
+        Map<String, Object> leftoverMap = leftoverAccessor.getValue(model);
+        if (leftoverMap == null || leftoverMap.isEmpty()) return null;
+        return leftoverMap.get(fieldName);
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper;
+
+import lombok.NonNull;
+import org.jooq.Cursor;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.ResultQuery;
+import org.laxture.skr.jooq.mapper.hook.BatchMappingHook;
+import org.laxture.skr.jooq.mapper.hook.MappingHook;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Bulk mapping facade of {@link SkrRecordMapperProvider}.
+ * <p>
+ * Unlike <code>Result.into(Class)</code>, which asks for a record mapper row by row, the
+ * mapper of a result or cursor is resolved once, and per-row scratch state is shared by all
+ * rows. Cursors are mapped lazily chunk by chunk, so exports of huge results run in
+ * constant memory, and big in-memory results can be mapped in parallel.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+public class SkrMapper {
+
+    /** default number of records fetched from a cursor at a time */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    /** number of leading records mapped sequentially to measure the per-row cost */
+    private static final int PARALLEL_SAMPLE_SIZE = 256;
+    /** estimated cost of the remaining records above which they are mapped in parallel */
+    private static final long PARALLEL_THRESHOLD_NANOS = 2_000_000L;
+    /** estimated cost of records mapped by a single fork/join task */
+    private static final long PARALLEL_TASK_NANOS = 200_000L;
+
+    private final SkrRecordMapperProvider recordMapperProvider;
+
+    public SkrMapper(@NonNull SkrRecordMapperProvider recordMapperProvider) {
+        this.recordMapperProvider = recordMapperProvider;
+    }
+
+    /**
+     * Map all records of a result to models. {@link MappingHook} of each model is called
+     * as usual.
+     *
+     * @param result the result
+     * @param type the model class
+     * @return the mapped models, in record order
+     */
+    public <R extends Record, E> List<E> mapAll(@NonNull Result<R> result, @NonNull Class<? extends E> type) {
+        return mapAll(result, type, null);
+    }
+
+    /**
+     * Map all records of a result to models, then call the batch hook once with all models.
+     *
+     * @param result the result
+     * @param type the model class
+     * @param batchHook optional hook called after all records are mapped
+     * @return the mapped models, in record order
+     */
+    public <R extends Record, E> List<E> mapAll(@NonNull Result<R> result, @NonNull Class<? extends E> type,
+                                                BatchMappingHook<? super E> batchHook) {
+        List<E> models = result.isEmpty()
+            ? new ArrayList<>(0)
+            : recordMapperProvider.<R, E>providePlanned(result.recordType(), type).mapAll(result);
+        if (batchHook != null) batchHook.postMapping(Collections.unmodifiableList(models));
+        return models;
+    }
+
+    /**
+     * Map all records of a result in parallel on the common {@link ForkJoinPool}.
+     *
+     * @see #mapAllParallel(Result, Class, ForkJoinPool)
+     */
+    public <R extends Record, E> List<E> mapAllParallel(@NonNull Result<R> result, @NonNull Class<? extends E> type) {
+        return mapAllParallel(result, type, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Map all records of a result, splitting them into chunks mapped in parallel on the given
+     * pool. The leading records are mapped sequentially to measure the per-row cost, and the
+     * rest are only mapped in parallel if their estimated cost outweighs the fork/join
+     * overhead, so small or cheap results are mapped sequentially as {@link #mapAll(Result, Class)}
+     * does.
+     * <p>
+     * {@link MappingHook} of each model is called on the thread that maps it.
+     *
+     * @param result the result
+     * @param type the model class
+     * @param pool the pool to map chunks on
+     * @return the mapped models, in record order
+     */
+    @SuppressWarnings("unchecked")
+    public <R extends Record, E> List<E> mapAllParallel(@NonNull Result<R> result, @NonNull Class<? extends E> type,
+                                                        @NonNull ForkJoinPool pool) {
+        if (result.isEmpty()) return new ArrayList<>(0);
+        PlannedRecordMapper<R, E> recordMapper = recordMapperProvider.providePlanned(result.recordType(), type);
+
+        int size = result.size();
+        Object[] models = new Object[size];
+        Object[] values = recordMapper.newValues();
+        int sampled = Math.min(size, PARALLEL_SAMPLE_SIZE);
+        long start = System.nanoTime();
+        for (int i = 0; i < sampled; i++) {
+            models[i] = recordMapper.map(result.get(i), values);
+        }
+        long rowNanos = Math.max(1L, (System.nanoTime() - start) / sampled);
+
+        int remaining = size - sampled;
+        if (pool.getParallelism() > 1 && rowNanos * remaining >= PARALLEL_THRESHOLD_NANOS) {
+            int taskSize = (int) Math.max(1L, Math.min(remaining, PARALLEL_TASK_NANOS / rowNanos));
+            pool.invoke(new MapTask<>(recordMapper, result, models, sampled, size, taskSize));
+        } else {
+            for (int i = sampled; i < size; i++) {
+                models[i] = recordMapper.map(result.get(i), values);
+            }
+        }
+        return new ArrayList<>(Arrays.asList((E[]) models));
+    }
+
+    /**
+     * Lazily map records of a query, with {@link #DEFAULT_FETCH_SIZE}.
+     *
+     * @see #stream(ResultQuery, Class, int)
+     */
+    public <R extends Record, E> Stream<E> stream(@NonNull ResultQuery<R> query, @NonNull Class<? extends E> type) {
+        return stream(query, type, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Lazily map records of a query. The query is executed with the given JDBC fetch size,
+     * and records are fetched from its cursor chunk by chunk, so memory use is bounded by
+     * the fetch size however big the result is. The fetch size is set on the given query
+     * object itself.
+     * <p>
+     * The stream holds an open cursor and must be closed, e.g. with try-with-resources.
+     *
+     * @param query the query
+     * @param type the model class
+     * @param fetchSize number of records fetched at a time
+     * @return stream of mapped models, in record order
+     */
+    public <R extends Record, E> Stream<E> stream(@NonNull ResultQuery<R> query, @NonNull Class<? extends E> type,
+                                                  int fetchSize) {
+        if (fetchSize <= 0) throw new IllegalArgumentException("fetchSize must be positive");
+        Cursor<R> cursor = query.fetchSize(fetchSize).fetchLazy();
+        try {
+            return stream(cursor, type, fetchSize);
+        } catch (RuntimeException | Error e) {
+            // caller never gets the stream to close
+            cursor.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Lazily map records of a cursor, see {@link #iterate(Cursor, Class, int)}. Closing the
+     * stream closes the cursor.
+     *
+     * @param cursor the cursor
+     * @param type the model class
+     * @param fetchSize number of records fetched at a time
+     * @return stream of mapped models, in record order
+     */
+    public <R extends Record, E> Stream<E> stream(@NonNull Cursor<R> cursor, @NonNull Class<? extends E> type,
+                                                  int fetchSize) {
+        Iterator<E> iterator = iterate(cursor, type, fetchSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+            .onClose(cursor::close);
+    }
+
+    /**
+     * Lazily map records of a cursor. The record mapper and per-row scratch state are bound
+     * once for the cursor, records are fetched <code>fetchSize</code> at a time and mapped
+     * on iteration. The cursor is closed once it's exhausted.
+     *
+     * @param cursor the cursor
+     * @param type the model class
+     * @param fetchSize number of records fetched at a time
+     * @return iterator of mapped models, in record order
+     */
+    public <R extends Record, E> Iterator<E> iterate(@NonNull Cursor<R> cursor, @NonNull Class<? extends E> type,
+                                                     int fetchSize) {
+        if (fetchSize <= 0) throw new IllegalArgumentException("fetchSize must be positive");
+        return new CursorIterator<>(cursor,
+            recordMapperProvider.providePlanned(cursor.recordType(), type), fetchSize);
+    }
+
+    /**
+     * Maps records of a range into the same range of the models array, splitting the range
+     * in halves until it's at most <code>taskSize</code> records.
+     */
+    private static class MapTask<R extends Record, E> extends RecursiveAction {
+
+        private final PlannedRecordMapper<R, E> recordMapper;
+        private final Result<R> result;
+        private final Object[] models;
+        private final int from;
+        private final int to;
+        private final int taskSize;
+
+        MapTask(PlannedRecordMapper<R, E> recordMapper, Result<R> result, Object[] models,
+                int from, int to, int taskSize) {
+            this.recordMapper = recordMapper;
+            this.result = result;
+            this.models = models;
+            this.from = from;
+            this.to = to;
+            this.taskSize = taskSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= taskSize) {
+                Object[] values = recordMapper.newValues();
+                for (int i = from; i < to; i++) {
+                    models[i] = recordMapper.map(result.get(i), values);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MapTask<>(recordMapper, result, models, from, middle, taskSize),
+                new MapTask<>(recordMapper, result, models, middle, to, taskSize));
+        }
+    }
+
+    private static class CursorIterator<R extends Record, E> implements Iterator<E> {
+
+        private final Cursor<R> cursor;
+        private final PlannedRecordMapper<R, E> recordMapper;
+        private final int fetchSize;
+        private final Object[] values;
+        private Result<R> chunk;
+        private int position;
+
+        CursorIterator(Cursor<R> cursor, PlannedRecordMapper<R, E> recordMapper, int fetchSize) {
+            this.cursor = cursor;
+            this.recordMapper = recordMapper;
+            this.fetchSize = fetchSize;
+            this.values = recordMapper.newValues();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (chunk != null && position < chunk.size()) return true;
+            if (cursor.isClosed()) return false;
+
+            // drop the previous chunk before fetching the next one
+            chunk = null;
+            chunk = cursor.fetchNext(fetchSize);
+            position = 0;
+            if (chunk.isEmpty()) {
+                cursor.close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return recordMapper.map(chunk.get(position++), values);
+        }
+    }
+}
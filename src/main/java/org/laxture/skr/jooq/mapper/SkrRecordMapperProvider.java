@@ -15,22 +15,21 @@
  */
 package org.laxture.skr.jooq.mapper;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.jooq.*;
 import org.jooq.Record;
-import org.laxture.skr.jooq.mapper.annotation.LeftoverCollector;
 import org.laxture.skr.jooq.mapper.converter.ConverterRegistry;
 import org.laxture.skr.jooq.mapper.converter.SkrJooqConverter;
-import org.laxture.skr.jooq.mapper.hook.MappingHook;
-import org.laxture.skr.jooq.mapper.misc.NamingUtils;
+import org.laxture.skr.jooq.mapper.converter.json.JacksonJsonCodec;
+import org.laxture.skr.jooq.mapper.converter.json.JsonCodec;
 import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
 
-import java.util.HashSet;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Provider for SkrRecordMapper instances.
@@ -42,138 +41,172 @@ public class SkrRecordMapperProvider implements RecordMapperProvider {
 
     private final ConverterRegistry converterRegistry;
     private final TableFieldCaseType tableFieldCaseType;
-    private final ObjectMapper objectMapper;
+    private final JsonCodec jsonCodec;
+    private final MappingEngine mappingEngine;
+    private final MappingPlanCache<PlannedRecordMapper<?, ?>> recordMappers = new MappingPlanCache<>();
 
     public SkrRecordMapperProvider(ConverterRegistry converterRegistry,
                                    TableFieldCaseType tableFieldCaseType,
                                    ObjectMapper objectMapper) {
+        this(converterRegistry, tableFieldCaseType, objectMapper, MappingEngine.REFLECTION);
+    }
+
+    public SkrRecordMapperProvider(ConverterRegistry converterRegistry,
+                                   TableFieldCaseType tableFieldCaseType,
+                                   ObjectMapper objectMapper,
+                                   MappingEngine mappingEngine) {
+        this(converterRegistry, tableFieldCaseType,
+            objectMapper != null ? new JacksonJsonCodec(objectMapper) : null, mappingEngine);
+    }
+
+    /**
+     * @param jsonCodec codec JSON leftover columns are read by, and whose object mapper
+     *                  {@link org.laxture.skr.jooq.mapper.annotation.JsonPath} properties are
+     *                  extracted by if it's a {@link JacksonJsonCodec}
+     */
+    public SkrRecordMapperProvider(ConverterRegistry converterRegistry,
+                                   TableFieldCaseType tableFieldCaseType,
+                                   JsonCodec jsonCodec,
+                                   MappingEngine mappingEngine) {
         this.converterRegistry = converterRegistry;
         this.tableFieldCaseType = tableFieldCaseType;
-        this.objectMapper = objectMapper;
+        this.jsonCodec = jsonCodec;
+        this.mappingEngine = mappingEngine;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <R extends Record, E> RecordMapper<R, E> provide(RecordType<R> recordType, Class<? extends E> type) {
-        return new SkrRecordMapper<>(type);
+        return (RecordMapper<R, E>) recordMappers.get(type, MappingPlan.Key.of(recordType, type),
+            key -> createRecordMapper(MappingPlan.<E>compile(recordType, type, tableFieldCaseType)));
     }
 
-    private class SkrRecordMapper<R extends Record, E> implements RecordMapper<R, E> {
-        private final Class<? extends E> modelType;
+    @SuppressWarnings("unchecked")
+    <R extends Record, E> PlannedRecordMapper<R, E> providePlanned(RecordType<R> recordType, Class<? extends E> type) {
+        return (PlannedRecordMapper<R, E>) provide(recordType, type);
+    }
 
-        public SkrRecordMapper(Class<? extends E> targetType) {
-            this.modelType = targetType;
+    private <R extends Record, E> PlannedRecordMapper<R, E> createRecordMapper(MappingPlan<E> plan) {
+        if (mappingEngine == MappingEngine.BYTECODE) {
+            PlannedRecordMapper<R, E> generated = BytecodeMapperFactory.createRecordMapper(this, plan);
+            if (generated != null) return generated;
         }
+        return new SkrRecordMapper<>(plan);
+    }
 
-        @Override
-        @SuppressWarnings("unchecked")
-        public E map(R record) {
-            if (record == null) return null;
-
-            if (record.size() == 1) {
-                Object value = record.get(0);
-                Object converted = convertFieldValue(value, modelType);
-                if (modelType.isInstance(converted)) {
-                    return (E) converted;
-                }
-            }
+    /**
+     * Clears all cached mapping plans. Plans are held per model class and bounded, so this
+     * is only needed to pick up changes of classes that are not reloaded, e.g. converters.
+     */
+    public void clearMappingPlans() {
+        recordMappers.clear();
+    }
 
-            E modelInstance = ReflectionUtils.createInstance(modelType);
-            Set<String> processedFields = new HashSet<>();
-
-            // Handle Map type directly without reflection
-            if (modelInstance instanceof Map<?, ?> mapInstance) {
-                for (Field<?> recordField : record.fields()) {
-                    Object jVal = recordField.get(record);
-                    String fieldName = NamingUtils.convertToCamelCase(
-                        tableFieldCaseType, recordField.getName());
-
-                    Object converted = convertFieldValue(jVal, Object.class);
-                    if (converted != null) {
-                        ((Map<String, Object>) mapInstance).put(fieldName, converted);
-                    }
-                }
-                return modelInstance;
-            }
+    private class SkrRecordMapper<R extends Record, E> extends PlannedRecordMapper<R, E> {
 
-            for (Field<?> recordField : record.fields()) {
-                Object jVal = recordField.get(record);
-                String fieldName = NamingUtils.convertToCamelCase(
-                    tableFieldCaseType, recordField.getName());
-
-                // find model field, convert and set value
-                ReflectionUtils.AccessorTuple modelField = ReflectionUtils.findMatchModelAccessor(modelInstance, fieldName);
-                if (modelField != null) {
-                    processedFields.add(recordField.getName()); // find matched model field, mark as processed, don't collect as leftover
-
-                    Object converted = convertFieldValue(jVal, modelField.getAccessor().getGenericType());
-                    if (converted == null) continue;
-                    modelField.setValue(converted);
-                    modelField.settle();
-                }
-            }
-            handleLeftoverCollector(modelInstance, record, processedFields, modelType);
+        SkrRecordMapper(MappingPlan<E> plan) {
+            super(SkrRecordMapperProvider.this, plan);
+        }
 
-            if (modelInstance instanceof MappingHook hook) {
-                hook.postMapping();
+        @Override
+        protected void mapColumns(Object[] values, Object[] owners) {
+            for (MappingPlan.ColumnBinding binding : plan.getBindings()) {
+                if (binding == null) continue;
+                Object jVal = values[binding.index()];
+                if (jVal == null) continue;
+                Object converted = convert(binding.index(), jVal);
+                if (converted == null) continue;
+                assign(binding.index(), owners, converted);
             }
-            return modelInstance;
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private <ModelType, JooqType> ModelType convertFieldValue(JooqType jVal, java.lang.reflect.Type modelType) {
+    ConverterRegistry getConverterRegistry() {
+        return converterRegistry;
+    }
+
+    /**
+     * @return the object mapper JSON paths are extracted by, null if the codec isn't Jackson
+     */
+    ObjectMapper getObjectMapper() {
+        return jsonCodec instanceof JacksonJsonCodec jackson ? jackson.getObjectMapper() : null;
+    }
+
+    <ModelType, JooqType> ModelType convertFieldValue(JooqType jVal, java.lang.reflect.Type modelType) {
         if (jVal == null) return null;
+        return convertFieldValue(jVal, modelType, converterRegistry.matchConverter(modelType, jVal.getClass()));
+    }
 
-        SkrJooqConverter<ModelType, JooqType> converter =
-            (SkrJooqConverter<ModelType, JooqType>) converterRegistry.matchConverter(modelType, jVal.getClass());
+    /**
+     * Convert value by the converter pre-bound to its column, looked up by the value class if
+     * there is none.
+     */
+    <ModelType, JooqType> ModelType convertFieldValue(JooqType jVal, java.lang.reflect.Type modelType,
+                                                      BoundConverter boundConverter) {
+        if (jVal == null) return null;
+        return convertFieldValue(jVal, modelType, boundConverter != null
+            ? boundConverter.match(jVal.getClass())
+            : converterRegistry.matchConverter(modelType, jVal.getClass()));
+    }
 
+    @SuppressWarnings("unchecked")
+    private <ModelType, JooqType> ModelType convertFieldValue(JooqType jVal, java.lang.reflect.Type modelType,
+                                                              SkrJooqConverter<?, ?> matchedConverter) {
+        SkrJooqConverter<ModelType, JooqType> converter = (SkrJooqConverter<ModelType, JooqType>) matchedConverter;
         if (converter == null) {
-            log.warn("No converter found for model type {} and jooq type {}", modelType, jVal.getClass());
+            converterRegistry.reportConverterMiss(modelType, jVal.getClass());
             return null;
         }
 
         return converter.convertToModelType(jVal, modelType);
     }
 
-    private void handleLeftoverCollector(Object instance,
-                                         Record record, Set<String> processedFields,
-                                         Class<?> modelType) {
-        java.lang.reflect.Field leftoverField = ReflectionUtils.findFieldAnnotatedWith(
-            modelType, LeftoverCollector.class);
-        if (leftoverField == null || !Map.class.isAssignableFrom(leftoverField.getType())) return;
-
-        Map<String, Object> leftoverMap = ReflectionUtils.getFieldValue(instance, leftoverField.getName());
-        if (leftoverMap == null) leftoverMap = (Map<String, Object>) ReflectionUtils.createInstance(leftoverField.getType());
-        for (Field<?> field : record.fields()) {
-            String fieldName = field.getName();
-            if (processedFields.contains(fieldName) || field.get(record) == null) continue;
-            Object converted;
-            if (ReflectionUtils.areEquals(JSON.class, field.getType())
-                || ReflectionUtils.areEquals(JSONB.class, field.getType())) {
-                String jsonStr = field.get(record).toString();
-                try {
-                    if (jsonStr.startsWith("{")) {
-                        converted = objectMapper.readValue(jsonStr, Map.class);
-                    } else if (jsonStr.startsWith("[")) {
-                        converted = objectMapper.readValue(jsonStr, List.class);
-                    } else {
-                        converted = jsonStr;
-                    }
-                } catch (JsonProcessingException e) {
-                    log.warn("Failed to read JSON string {} to Map or List", jsonStr, e);
-                    converted = jsonStr;
-                }
-            } else {
-                converted = field.get(record);
-            }
-            if (converted != null) leftoverMap.put(
-                NamingUtils.convertToCamelCase(tableFieldCaseType, fieldName), converted);
+    void handleLeftoverCollector(Object instance, Object[] values, MappingPlan<?> plan) {
+        ReflectionUtils.Accessor leftoverAccessor = plan.getLeftoverAccessor();
+        int[] leftoverIndexes = plan.getLeftoverIndexes();
+        if (leftoverAccessor == null || leftoverIndexes.length == 0) return;
+
+        Map<String, Object> leftoverMap = leftoverAccessor.getValue(instance);
+        boolean newMap = leftoverMap == null;
+        if (newMap && !leftoverAccessor.isWritable()) return;
+
+        boolean[] jsonLeftovers = plan.getJsonLeftovers();
+        String[] propertyNames = plan.getPropertyNames();
+        for (int i = 0; i < leftoverIndexes.length; i++) {
+            Object jVal = values[leftoverIndexes[i]];
+            if (jVal == null) continue;
+            Object converted = jsonLeftovers[i] && jsonCodec != null ? readJsonLeftover(jVal.toString()) : jVal;
+            if (converted == null) continue;
+            // create map lazily, sized for all leftover columns
+            if (leftoverMap == null) leftoverMap = newLeftoverMap(leftoverAccessor.getType(), leftoverIndexes.length);
+            leftoverMap.put(propertyNames[leftoverIndexes[i]], converted);
         }
 
-        if (leftoverMap.isEmpty()) return;
         // set leftover field to the model instance
-        if (leftoverMap != ReflectionUtils.getFieldValue(instance, leftoverField.getName())) {
-            ReflectionUtils.setFieldValue(instance, leftoverField, leftoverMap);
+        if (newMap && leftoverMap != null) {
+            leftoverAccessor.setValue(instance, leftoverMap);
         }
     }
+
+    private Object readJsonLeftover(String jsonStr) {
+        try {
+            if (jsonStr.startsWith("{")) {
+                return jsonCodec.read(jsonStr, Map.class);
+            } else if (jsonStr.startsWith("[")) {
+                return jsonCodec.read(jsonStr, List.class);
+            } else {
+                return jsonStr;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read JSON string {} to Map or List", jsonStr, e);
+            return jsonStr;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> newLeftoverMap(Class<?> mapType, int expectedSize) {
+        if (mapType == Map.class || mapType == LinkedHashMap.class) return LinkedHashMap.newLinkedHashMap(expectedSize);
+        if (mapType == HashMap.class) return HashMap.newHashMap(expectedSize);
+        return (Map<String, Object>) ReflectionUtils.createInstance(mapType);
+    }
 }
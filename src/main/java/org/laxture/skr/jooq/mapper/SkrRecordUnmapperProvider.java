@@ -16,17 +16,12 @@
 package org.laxture.skr.jooq.mapper;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.jooq.*;
 import org.jooq.Record;
-import org.laxture.skr.jooq.mapper.annotation.LeftoverCollector;
 import org.laxture.skr.jooq.mapper.converter.ConverterRegistry;
 import org.laxture.skr.jooq.mapper.converter.SkrJooqConverter;
-import org.laxture.skr.jooq.mapper.misc.NamingUtils;
-import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
 
-import java.util.Map;
 
 @Slf4j
 /**
@@ -40,79 +35,96 @@ public class SkrRecordUnmapperProvider implements RecordUnmapperProvider {
     private final ConverterRegistry converterRegistry;
     private final TableFieldCaseType tableFieldCaseType;
     private final ObjectMapper objectMapper;
+    private final MappingEngine mappingEngine;
+    private final MappingPlanCache<PlannedRecordUnmapper<?, ?>> recordUnmappers = new MappingPlanCache<>();
 
     public SkrRecordUnmapperProvider(DSLContextProvider dslContextProvider,
                                      ConverterRegistry converterRegistry,
                                      TableFieldCaseType tableFieldCaseType,
                                      ObjectMapper objectMapper) {
+        this(dslContextProvider, converterRegistry, tableFieldCaseType, objectMapper, MappingEngine.REFLECTION);
+    }
+
+    public SkrRecordUnmapperProvider(DSLContextProvider dslContextProvider,
+                                     ConverterRegistry converterRegistry,
+                                     TableFieldCaseType tableFieldCaseType,
+                                     ObjectMapper objectMapper,
+                                     MappingEngine mappingEngine) {
         this.dslContextProvider = dslContextProvider;
         this.converterRegistry = converterRegistry;
         this.tableFieldCaseType = tableFieldCaseType;
         this.objectMapper = objectMapper;
+        this.mappingEngine = mappingEngine;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <E, R extends Record> RecordUnmapper<E, R> provide(Class<? extends E> type, RecordType<R> recordType) {
-        return new SkrRecordUnmapper<>(recordType);
+        return (RecordUnmapper<E, R>) recordUnmappers.get(type, MappingPlan.Key.of(recordType, type),
+            key -> createRecordUnmapper(UnmappingPlan.<E>compile(recordType, type, tableFieldCaseType)));
+    }
+
+    private <E, R extends Record> PlannedRecordUnmapper<E, R> createRecordUnmapper(UnmappingPlan<E> plan) {
+        if (mappingEngine == MappingEngine.BYTECODE) {
+            PlannedRecordUnmapper<E, R> generated = BytecodeMapperFactory.createRecordUnmapper(this, plan);
+            if (generated != null) return generated;
+        }
+        return new SkrRecordUnmapper<>(plan);
+    }
+
+    /**
+     * Clears all cached unmapping plans. Plans are held per model class and bounded, so this
+     * is only needed to pick up changes of classes that are not reloaded, e.g. converters.
+     */
+    public void clearUnmappingPlans() {
+        recordUnmappers.clear();
     }
 
-    private class SkrRecordUnmapper<E, R extends Record> implements RecordUnmapper<E, R> {
-        private final RecordType<R> recordType;
+    Record newRecord(Field<?>[] fields) {
+        return dslContextProvider.provide().newRecord(fields);
+    }
+
+    private class SkrRecordUnmapper<E, R extends Record> extends PlannedRecordUnmapper<E, R> {
 
-        SkrRecordUnmapper(RecordType<R> recordType) {
-            this.recordType = recordType;
+        SkrRecordUnmapper(UnmappingPlan<E> plan) {
+            super(SkrRecordUnmapperProvider.this, plan);
         }
 
         @Override
-        @SuppressWarnings("unchecked")
-        public R unmap(@NonNull E model) {
-            R record = (R) dslContextProvider.provide().newRecord(recordType.fields());
-
-            for (Field<?> recordField : record.fields()) {
-                String fieldName = NamingUtils.convertToCamelCase(
-                    tableFieldCaseType, recordField.getName());
-
-                Object mVal;
-                // Use false for createNestedObject - don't create nested objects if null
-                ReflectionUtils.AccessorTuple modelField = ReflectionUtils.findMatchModelAccessor(model, fieldName, false);
-                if (modelField != null) {
-                    // find model field
-                    if (modelField.getAccessor().isTransientField()) continue;
-                    mVal = modelField.getValue();
-                } else {
-                    // try to find value from leftover collector
-                    mVal = findValueFromLeftoverCollector(model, fieldName);
-                }
-
-                if (mVal != null) {
-                    Object jooqValue = convertFieldValue(mVal, recordField.getType());
-                    record.set((Field<Object>) recordField, jooqValue);
-                }
+        protected void unmapColumns(Object model, Record record) {
+            for (int i = 0; i < record.size(); i++) {
+                writeValue(record, i, readValue(model, i));
             }
-
-            return record;
         }
+    }
 
-        private Object findValueFromLeftoverCollector(Object modelInstance, String fieldName) {
-            java.lang.reflect.Field leftoverField = ReflectionUtils.findFieldAnnotatedWith(
-                modelInstance.getClass(), LeftoverCollector.class);
-            if (leftoverField == null || !Map.class.isAssignableFrom(leftoverField.getType())) return null;
-
-            Map<String, Object> leftoverMap = ReflectionUtils.getFieldValue(modelInstance, leftoverField);
-            if (leftoverMap == null || leftoverMap.isEmpty()) return null;
-            return leftoverMap.get(fieldName);
-        }
+    ConverterRegistry getConverterRegistry() {
+        return converterRegistry;
     }
 
-    @SuppressWarnings("unchecked")
-    private <ModelType, JooqType> JooqType convertFieldValue(ModelType mVal, Class<?> jooqType) {
+    <ModelType, JooqType> JooqType convertFieldValue(ModelType mVal, Class<?> jooqType) {
         if (mVal == null) return null;
+        return convertFieldValue(mVal, jooqType, converterRegistry.matchConverter(mVal.getClass(), jooqType));
+    }
 
-        SkrJooqConverter<ModelType, JooqType> converter =
-            (SkrJooqConverter<ModelType, JooqType>) converterRegistry.matchConverter(mVal.getClass(), jooqType);
+    /**
+     * Convert value by the converter pre-bound to its property, looked up by the value class
+     * if there is none.
+     */
+    <ModelType, JooqType> JooqType convertFieldValue(ModelType mVal, Class<?> jooqType,
+                                                     BoundConverter boundConverter) {
+        if (mVal == null) return null;
+        return convertFieldValue(mVal, jooqType, boundConverter != null
+            ? boundConverter.match(mVal.getClass())
+            : converterRegistry.matchConverter(mVal.getClass(), jooqType));
+    }
 
+    @SuppressWarnings("unchecked")
+    private <ModelType, JooqType> JooqType convertFieldValue(ModelType mVal, Class<?> jooqType,
+                                                             SkrJooqConverter<?, ?> matchedConverter) {
+        SkrJooqConverter<ModelType, JooqType> converter = (SkrJooqConverter<ModelType, JooqType>) matchedConverter;
         if (converter == null) {
-            log.warn("No converter found for jooq type {} and model type {}", jooqType, mVal.getClass());
+            converterRegistry.reportConverterMiss(mVal.getClass(), jooqType);
             return null;
         }
 
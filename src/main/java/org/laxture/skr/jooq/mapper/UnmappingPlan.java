@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper;
+
+import lombok.Getter;
+import org.jooq.Field;
+import org.jooq.RecordType;
+import org.laxture.skr.jooq.mapper.annotation.LeftoverCollector;
+import org.laxture.skr.jooq.mapper.misc.NamingUtils;
+import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
+
+/**
+ * Immutable unmapping plan of a model class to a record shape, the counterpart of
+ * {@link MappingPlan}.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+@Getter
+final class UnmappingPlan<E> {
+
+    private final Class<? extends E> modelType;
+    private final Field<?>[] fields;
+    /** camelCase property names, indexed by column */
+    private final String[] propertyNames;
+    /** property bindings, indexed by column. null if no model property matched. */
+    private final PropertyBinding[] bindings;
+    /** accessor of the Map field annotated with {@link LeftoverCollector}, null if absent */
+    private final ReflectionUtils.Accessor leftoverAccessor;
+
+    private UnmappingPlan(Class<? extends E> modelType, Field<?>[] fields, String[] propertyNames,
+                          PropertyBinding[] bindings, ReflectionUtils.Accessor leftoverAccessor) {
+        this.modelType = modelType;
+        this.fields = fields;
+        this.propertyNames = propertyNames;
+        this.bindings = bindings;
+        this.leftoverAccessor = leftoverAccessor;
+    }
+
+    static <E> UnmappingPlan<E> compile(RecordType<?> recordType,
+                                        Class<? extends E> modelType,
+                                        TableFieldCaseType tableFieldCaseType) {
+        Field<?>[] fields = recordType.fields();
+        String[] propertyNames = new String[fields.length];
+        PropertyBinding[] bindings = new PropertyBinding[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            propertyNames[i] = NamingUtils.convertToCamelCase(tableFieldCaseType, fields[i].getName());
+            ReflectionUtils.AccessorPath path =
+                ReflectionUtils.findMatchModelAccessorPath(modelType, propertyNames[i]);
+            if (path != null) {
+                bindings[i] = new PropertyBinding(i, path, path.getAccessor().isTransientField());
+            }
+        }
+
+        return new UnmappingPlan<>(modelType, fields, propertyNames, bindings,
+            MappingPlan.findLeftoverAccessor(modelType));
+    }
+
+    /**
+     * Binding of a (possibly nested) model property to a record column.
+     *
+     * @param index column index in the record
+     * @param path accessor path of the model property
+     * @param transientProperty whether the property is excluded from persistence
+     */
+    record PropertyBinding(
+        int index,
+        ReflectionUtils.AccessorPath path,
+        boolean transientProperty
+    ) {}
+}
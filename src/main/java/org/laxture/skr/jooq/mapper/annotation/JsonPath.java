@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maps a property to a value inside a JSON/JSONB column, e.g.
+ * <code>@JsonPath(value = "$.settings.theme", source = "metaInfo")</code>.
+ * <p>
+ * All paths reading the same column are extracted in one pass over the document by a
+ * streaming parser, unrelated subtrees are skipped without being bound, so the cost scales
+ * with the values picked rather than the document size. Only member access
+ * (<code>.name</code> or <code>['name']</code>) and array index (<code>[0]</code>) are
+ * supported. The property is left untouched if the path is absent or its value is null,
+ * and is not written back when unmapping. Paths are extracted by the streaming parser of
+ * the {@link org.laxture.skr.jooq.mapper.converter.json.JacksonJsonCodec}, and are ignored
+ * with a warning if the mapper provider is set up with another codec.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface JsonPath {
+
+    /**
+     * @return path of the value in the JSON document, starting with <code>$</code>
+     */
+    String value();
+
+    /**
+     * @return the source column, by its camelCase property name or its field name
+     */
+    String source();
+}
@@ -19,6 +19,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.jooq.DSLContext;
 import org.laxture.skr.jooq.mapper.DSLContextProvider;
+import org.laxture.skr.jooq.mapper.MappingEngine;
+import org.laxture.skr.jooq.mapper.SkrMapper;
 import org.laxture.skr.jooq.mapper.SkrRecordMapperProvider;
 import org.laxture.skr.jooq.mapper.SkrRecordUnmapperProvider;
 import org.laxture.skr.jooq.mapper.TableFieldCaseType;
@@ -50,6 +52,7 @@ import java.util.List;
  * <ul>
  *   <li>enabled: Whether to enable auto-configuration (default: true)</li>
  *   <li>tableFieldCaseType: Field naming convention (default: SNAKE_CASE)</li>
+ *   <li>engine: Mapping engine, REFLECTION or BYTECODE (default: REFLECTION)</li>
  * </ul>
  *
  * @author <a href="https://github.com/hank-cp">Hank CP</a>
@@ -69,21 +72,22 @@ public class SkrJooqMapperAutoConfiguration {
      */
     @Bean
     @ConditionalOnMissingBean
-    public ConverterRegistry converterRegistry(@Autowired ObjectMapper objectMapper,
+    public ConverterRegistry converterRegistry(JsonCodec skrJooqMapperJsonCodec,
                                                @Autowired(required = false) List<SkrJooqConverter<?, ?>> customConverters) {
         ConverterRegistry registry = new ConverterRegistry();
 
-        ObjectMapper cookedObjectMapper = ObjectMapperConfigurer.setupPersistentObjectMapper(objectMapper.copy());
-
         // Register built-in converters
         // Note: Some converters are already registered in ConverterRegistry constructor
-        // Here we register the remaining json converters that require ObjectMapper
-        registry.registerConverter(new JsonArrayConverter(cookedObjectMapper), null);
-        registry.registerConverter(new JsonObjectConverter(cookedObjectMapper), null);
-        registry.registerConverter(new JsonObject2MapConverter(cookedObjectMapper), null);
-        registry.registerConverter(new JsonbArrayConverter(cookedObjectMapper), null);
-        registry.registerConverter(new JsonbObjectConverter(cookedObjectMapper), null);
-        registry.registerConverter(new JsonbObject2MapConverter(cookedObjectMapper), null);
+        // Here we register the remaining json converters that require JsonCodec
+        registry.registerConverter(new JsonArrayConverter(skrJooqMapperJsonCodec), null);
+        registry.registerConverter(new JsonObjectConverter(skrJooqMapperJsonCodec), null);
+        registry.registerConverter(new JsonObject2MapConverter(skrJooqMapperJsonCodec), null);
+        registry.registerConverter(new JsonbArrayConverter(skrJooqMapperJsonCodec), null);
+        registry.registerConverter(new JsonbObjectConverter(skrJooqMapperJsonCodec), null);
+        registry.registerConverter(new JsonbObject2MapConverter(skrJooqMapperJsonCodec), null);
+        registry.registerConverter(new JsonPrimitiveArrayConverter(skrJooqMapperJsonCodec), null);
+        registry.registerConverter(new LazyJsonConverter(skrJooqMapperJsonCodec), null);
+        registry.registerConverter(new LazyJsonbConverter(skrJooqMapperJsonCodec), null);
 
         // Register custom converters if any
         if (customConverters != null && !customConverters.isEmpty()) {
@@ -136,6 +140,56 @@ public class SkrJooqMapperAutoConfiguration {
         }
     }
 
+    /**
+     * Creates the JsonCodec that JSON converters and the leftover collector go through.
+     * <p>
+     * Defaults to Jackson with a copy of the persistence ObjectMapper, so later changes to the
+     * application's ObjectMapper don't affect how persistent JSON is read and written. Declare
+     * a JsonCodec bean to plug in another codec.
+     *
+     * @param skrJooqMapperObjectMapper the ObjectMapper for persistence operations
+     * @return JsonCodec instance
+     */
+    @Bean(name = "skrJooqMapperJsonCodec")
+    @ConditionalOnMissingBean(JsonCodec.class)
+    public JsonCodec skrJooqMapperJsonCodec(ObjectMapper skrJooqMapperObjectMapper) {
+        return new JacksonJsonCodec(skrJooqMapperObjectMapper.copy());
+    }
+
+    /**
+     * Creates the SkrRecordMapperProvider bean.
+     * <p>
+     * This provider is responsible for creating RecordMapper instances that convert
+     * Jooq records to model objects.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SkrRecordMapperProvider skrRecordMapperProvider(
+            ConverterRegistry converterRegistry,
+            SkrJooqMapperProperties properties,
+            JsonCodec skrJooqMapperJsonCodec) {
+
+        TableFieldCaseType caseType = properties.getTableFieldCaseType();
+        MappingEngine engine = properties.getEngine();
+        log.info("Creating SkrRecordMapperProvider with tableFieldCaseType: {}, engine: {}", caseType, engine);
+
+        return new SkrRecordMapperProvider(
+            converterRegistry,
+            caseType,
+            skrJooqMapperJsonCodec,
+            engine
+        );
+    }
+
+    /**
+     * Creates the SkrMapper bean for bulk mapping of results.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public SkrMapper skrMapper(SkrRecordMapperProvider skrRecordMapperProvider) {
+        return new SkrMapper(skrRecordMapperProvider);
+    }
+
     /**
      * Creates the SkrRecordUnmapperProvider bean.
      * <p>
@@ -151,13 +205,15 @@ public class SkrJooqMapperAutoConfiguration {
             ObjectMapper skrJooqMapperObjectMapper) {
 
         TableFieldCaseType caseType = properties.getTableFieldCaseType();
-        log.info("Creating SkrRecordUnmapperProvider with tableFieldCaseType: {}", caseType);
+        MappingEngine engine = properties.getEngine();
+        log.info("Creating SkrRecordUnmapperProvider with tableFieldCaseType: {}, engine: {}", caseType, engine);
 
         return new SkrRecordUnmapperProvider(
             dslContextProvider,
             converterRegistry,
             caseType,
-            skrJooqMapperObjectMapper
+            skrJooqMapperObjectMapper,
+            engine
         );
     }
 }
@@ -17,6 +17,7 @@ package org.laxture.skr.jooq.mapper.autoconfigure;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.laxture.skr.jooq.mapper.MappingEngine;
 import org.laxture.skr.jooq.mapper.TableFieldCaseType;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -42,4 +43,10 @@ public class SkrJooqMapperProperties {
      */
     private boolean enabled = true;
 
+    /**
+     * Engine used to map records to models and back.
+     * Default is REFLECTION.
+     */
+    private MappingEngine engine = MappingEngine.REFLECTION;
+
 }
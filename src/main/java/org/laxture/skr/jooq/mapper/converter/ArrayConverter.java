@@ -20,15 +20,22 @@ import org.apache.commons.beanutils.ConvertUtils;
 import org.laxture.skr.jooq.mapper.misc.MapperConversionException;
 import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.Type;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 /**
  * Converter for type conversion operations.
+ * <p>
+ * Elements are converted through {@link PrimitiveConversions} in exact-size loops, and
+ * <code>long[]</code>, <code>int[]</code>, <code>double[]</code> and <code>boolean[]</code>
+ * are read and written without boxing where the other side allows.
  *
  * @author <a href="https://github.com/hank-cp">Hank CP</a>
  */
@@ -46,11 +53,12 @@ public class ArrayConverter implements SkrJooqConverter<Object, Object> {
 
     @Override
     public Object convertToJooqType(@NonNull Object mVal, Class<?> jooqType) {
+        if (!jooqType.isArray()) return ConvertUtils.convert(mVal, jooqType);
         if (ReflectionUtils.isArray(mVal.getClass())) {
-            return ConvertUtils.convert(mVal, jooqType);
+            return toArray(mVal, jooqType.getComponentType());
         }
         if (mVal instanceof Collection<?> mCollection) {
-            return ConvertUtils.convert(mCollection.toArray(), jooqType);
+            return toArray(mCollection.toArray(), jooqType.getComponentType());
         }
         throw new MapperConversionException(mVal.getClass(), Object[].class);
     }
@@ -61,24 +69,159 @@ public class ArrayConverter implements SkrJooqConverter<Object, Object> {
         if (mElementType == null) {
             throw new MapperConversionException(jVal.getClass(), modelType);
         }
+        Class<?> modelClass = ReflectionUtils.toClass(modelType);
         Class<?> mElementClass = ReflectionUtils.toClass(mElementType);
 
-        if (ReflectionUtils.isArray(modelType)) {
-            return ConvertUtils.convert(jVal, ReflectionUtils.toClass(modelType));
+        if (modelClass.isArray()) {
+            return toArray(jVal, modelClass.getComponentType());
         }
 
-        if (List.class.isAssignableFrom(ReflectionUtils.toClass(modelType))) {
-            return Arrays.stream(ReflectionUtils.wrapArray(jVal))
-                .map(elem -> ConvertUtils.convert(elem, mElementClass)).
-                collect(Collectors.toList());
+        if (List.class.isAssignableFrom(modelClass)) {
+            return toCollection(jVal, mElementClass, new ArrayList<>(Array.getLength(jVal)));
         }
 
-        if (Set.class.isAssignableFrom(ReflectionUtils.toClass(modelType))) {
-            return Arrays.stream(ReflectionUtils.wrapArray(jVal))
-                .map(elem -> ConvertUtils.convert(elem, mElementClass))
-                .collect(Collectors.toSet());
+        if (Set.class.isAssignableFrom(modelClass)) {
+            return toCollection(jVal, mElementClass, HashSet.newHashSet(Array.getLength(jVal)));
         }
 
         throw new MapperConversionException(jVal.getClass(), modelType);
     }
+
+    //*************************************************************************
+    // Array Conversions
+    //*************************************************************************
+
+    private static Object toArray(Object source, Class<?> componentType) {
+        // copy, so that the model and the record never share one mutable array
+        if (source.getClass().getComponentType() == componentType) return copyArray(source, componentType);
+        if (componentType == long.class) return toLongArray(source);
+        if (componentType == int.class) return toIntArray(source);
+        if (componentType == double.class) return toDoubleArray(source);
+        if (componentType == boolean.class) return toBooleanArray(source);
+        if (componentType.isPrimitive()) return ConvertUtils.convert(source, componentType.arrayType());
+
+        int length = Array.getLength(source);
+        Object[] target = (Object[]) Array.newInstance(componentType, length);
+        ElementConverter converter = new ElementConverter(componentType);
+        for (int i = 0; i < length; i++) {
+            target[i] = converter.convert(element(source, i));
+        }
+        return target;
+    }
+
+    private static Object copyArray(Object source, Class<?> componentType) {
+        int length = Array.getLength(source);
+        Object target = Array.newInstance(componentType, length);
+        System.arraycopy(source, 0, target, 0, length);
+        return target;
+    }
+
+    private static long[] toLongArray(Object source) {
+        if (source instanceof int[] ints) {
+            long[] target = new long[ints.length];
+            for (int i = 0; i < ints.length; i++) target[i] = ints[i];
+            return target;
+        }
+        long[] target = new long[Array.getLength(source)];
+        ElementConverter converter = new ElementConverter(Long.class);
+        for (int i = 0; i < target.length; i++) {
+            Object element = element(source, i);
+            if (element != null) target[i] = element instanceof Long l ? l : (Long) converter.convert(element);
+        }
+        return target;
+    }
+
+    private static int[] toIntArray(Object source) {
+        int[] target = new int[Array.getLength(source)];
+        ElementConverter converter = new ElementConverter(Integer.class);
+        for (int i = 0; i < target.length; i++) {
+            Object element = element(source, i);
+            if (element != null) target[i] = element instanceof Integer n ? n : (Integer) converter.convert(element);
+        }
+        return target;
+    }
+
+    private static double[] toDoubleArray(Object source) {
+        if (source instanceof long[] longs) {
+            double[] target = new double[longs.length];
+            for (int i = 0; i < longs.length; i++) target[i] = longs[i];
+            return target;
+        }
+        if (source instanceof int[] ints) {
+            double[] target = new double[ints.length];
+            for (int i = 0; i < ints.length; i++) target[i] = ints[i];
+            return target;
+        }
+        double[] target = new double[Array.getLength(source)];
+        ElementConverter converter = new ElementConverter(Double.class);
+        for (int i = 0; i < target.length; i++) {
+            Object element = element(source, i);
+            if (element != null) target[i] = element instanceof Double d ? d : (Double) converter.convert(element);
+        }
+        return target;
+    }
+
+    private static boolean[] toBooleanArray(Object source) {
+        boolean[] target = new boolean[Array.getLength(source)];
+        ElementConverter converter = new ElementConverter(Boolean.class);
+        for (int i = 0; i < target.length; i++) {
+            Object element = element(source, i);
+            if (element != null) target[i] = element instanceof Boolean b ? b : (Boolean) converter.convert(element);
+        }
+        return target;
+    }
+
+    private static Collection<Object> toCollection(Object source, Class<?> elementClass, Collection<Object> target) {
+        if (elementClass == Long.class && source instanceof long[] longs) {
+            for (long element : longs) target.add(element);
+            return target;
+        }
+        if (elementClass == Integer.class && source instanceof int[] ints) {
+            for (int element : ints) target.add(element);
+            return target;
+        }
+        ElementConverter converter = new ElementConverter(elementClass);
+        int length = Array.getLength(source);
+        for (int i = 0; i < length; i++) {
+            target.add(converter.convert(element(source, i)));
+        }
+        return target;
+    }
+
+    /**
+     * Read array element, primitive arrays of common types are read without reflection.
+     */
+    private static Object element(Object array, int index) {
+        if (array instanceof Object[] objects) return objects[index];
+        if (array instanceof long[] longs) return longs[index];
+        if (array instanceof int[] ints) return ints[index];
+        if (array instanceof double[] doubles) return doubles[index];
+        if (array instanceof boolean[] booleans) return booleans[index];
+        return Array.get(array, index);
+    }
+
+    /**
+     * Converts elements to a target class, the conversion is resolved once for consecutive
+     * elements of the same class.
+     */
+    private static class ElementConverter {
+        private final Class<?> targetClass;
+        private Class<?> sourceClass;
+        private Optional<Function<Object, Object>> conversion;
+
+        ElementConverter(Class<?> targetClass) {
+            this.targetClass = ReflectionUtils.toBoxedClass(targetClass);
+        }
+
+        Object convert(Object element) {
+            if (element == null || targetClass.isInstance(element)) return element;
+            if (element.getClass() != sourceClass) {
+                sourceClass = element.getClass();
+                conversion = PrimitiveConversions.find(sourceClass, targetClass);
+            }
+            // pairs not in the conversion matrix are left to ConvertUtils
+            if (conversion.isEmpty()) return ConvertUtils.convert(element, targetClass);
+            return conversion.get().apply(element);
+        }
+    }
 }
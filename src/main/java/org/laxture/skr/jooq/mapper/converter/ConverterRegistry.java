@@ -16,6 +16,7 @@
 package org.laxture.skr.jooq.mapper.converter;
 
 import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
 import org.laxture.skr.jooq.mapper.converter.datetime.Date2StringConverter;
 import org.laxture.skr.jooq.mapper.converter.datetime.Time2StringConverter;
 import org.laxture.skr.jooq.mapper.converter.datetime.Timestamp2StringConverter;
@@ -24,7 +25,8 @@ import org.laxture.skr.jooq.mapper.converter.jsr310.*;
 import java.lang.reflect.Type;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.laxture.skr.jooq.mapper.converter.SkrJooqConverter.MISMATCH;
 
@@ -36,62 +38,111 @@ import static org.laxture.skr.jooq.mapper.converter.SkrJooqConverter.MISMATCH;
  *
  * @author <a href="https://github.com/hank-cp">Hank CP</a>
  */
+@Slf4j
 public class ConverterRegistry {
 
     /**
-     * Composite key for caching converter matching results.
+     * Registry key of the built-in converters, unregister it to start from an empty registry.
      */
-    private static class ConverterCacheKey {
-        private final Type modelType;
-        private final Type jooqType;
+    public static final String BUILT_IN_REGISTRY_KEY = "built-in";
 
-        public ConverterCacheKey(Type modelType, Type jooqType) {
-            this.modelType = modelType;
-            this.jooqType = jooqType;
-        }
+    /**
+     * Cached result of type pairs no converter matches.
+     */
+    private static final Object NO_CONVERTER = new Object();
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            ConverterCacheKey that = (ConverterCacheKey) o;
-            return Objects.equals(modelType, that.modelType) &&
-                   Objects.equals(jooqType, that.jooqType);
-        }
+    /**
+     * Maximum number of distinct type pairs misses are counted for, so that schema drift
+     * can't grow the counters without limit.
+     */
+    static final int MAX_CONVERTER_MISSES = 1024;
+
+    /**
+     * Type pair of a value no converter was found for.
+     *
+     * @param modelType the model type
+     * @param jooqType the Jooq type
+     */
+    public record ConverterMiss(Type modelType, Type jooqType) {}
+
+    /**
+     * Immutable set of registered converters together with the matching results cached
+     * against it. Registration publishes a new snapshot, so readers never lock and never
+     * see results matched against a stale converter set.
+     */
+    private static final class Snapshot {
+        /** registered converters in registration order, earlier ones win priority ties */
+        private final SkrJooqConverter<?, ?>[] converters;
+        /** registry keys, indexed by converter */
+        private final String[] registryKeys;
+        /**
+         * Matching results nested by model type, then by Jooq type. Both levels are hash maps
+         * keyed by {@link Type}, which for classes hash by identity, so a cache hit allocates
+         * nothing. Values are the matched converter or {@link #NO_CONVERTER}.
+         */
+        private final Map<Type, Map<Type, Object>> converterCache = new ConcurrentHashMap<>();
+        /** increased by every published snapshot */
+        private final long generation;
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(modelType, jooqType);
+        private Snapshot(SkrJooqConverter<?, ?>[] converters, String[] registryKeys, long generation) {
+            this.converters = converters;
+            this.registryKeys = registryKeys;
+            this.generation = generation;
         }
     }
 
-    private final Map<SkrJooqConverter<?, ?>, String> converters = Collections.synchronizedMap(new HashMap<>());
-    private final Map<ConverterCacheKey, SkrJooqConverter<?, ?>> converterCache = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile Snapshot snapshot;
+    private final Map<ConverterMiss, LongAdder> converterMisses = new ConcurrentHashMap<>();
+    private final AtomicBoolean converterMissesCapped = new AtomicBoolean();
 
     public ConverterRegistry() {
-        converters.put(new DirectConverter(), null);
-        converters.put(new PrimitiveTypeConverter(), null);
-        converters.put(new ArrayConverter(), null);
-        converters.put(new Date2StringConverter(), null);
-        converters.put(new Time2StringConverter(), null);
-        converters.put(new Timestamp2StringConverter(), null);
-        converters.put(new LocalDate2StringConverter(), null);
-        converters.put(new LocalDateTime2StringConverter(), null);
-        converters.put(new LocalTime2StringConverter(), null);
-        converters.put(new LocalDate2DateConverter(), null);
-        converters.put(new LocalDateTime2TimestampConverter(), null);
-        converters.put(new LocalTime2TimeConverter(), null);
+        snapshot = new Snapshot(new SkrJooqConverter<?, ?>[] {
+            new DirectConverter(),
+            new PrimitiveTypeConverter(),
+            new ArrayConverter(),
+            new Date2StringConverter(),
+            new Time2StringConverter(),
+            new Timestamp2StringConverter(),
+            new LocalDate2StringConverter(),
+            new LocalDateTime2StringConverter(),
+            new LocalTime2StringConverter(),
+            new LocalDate2DateConverter(),
+            new LocalDateTime2TimestampConverter(),
+            new LocalTime2TimeConverter()
+        }, builtInRegistryKeys(12), 0);
+    }
+
+    private static String[] builtInRegistryKeys(int count) {
+        String[] registryKeys = new String[count];
+        Arrays.fill(registryKeys, BUILT_IN_REGISTRY_KEY);
+        return registryKeys;
     }
 
     /**
-     * Registers a converter with an optional registry key.
+     * Registers a converter with an optional registry key. Registering a converter again
+     * replaces its registry key.
      *
      * @param converter the converter to register
      * @param registryKey optional key for later lookup or removal
      */
     public void registerConverter(@NonNull SkrJooqConverter<?, ?> converter, String registryKey) {
-        converters.put(converter, registryKey);
-        clearCache();
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            SkrJooqConverter<?, ?>[] converters = current.converters;
+            String[] registryKeys = current.registryKeys;
+            int index = Arrays.asList(converters).indexOf(converter);
+            if (index < 0) {
+                index = converters.length;
+                converters = Arrays.copyOf(converters, index + 1);
+                converters[index] = converter;
+                registryKeys = Arrays.copyOf(registryKeys, index + 1);
+            } else {
+                registryKeys = registryKeys.clone();
+            }
+            registryKeys[index] = registryKey;
+            snapshot = new Snapshot(converters, registryKeys, current.generation + 1);
+        }
     }
 
     /**
@@ -100,37 +151,48 @@ public class ConverterRegistry {
      * @param registryKey the registry key
      */
     public void unregisterConverter(@NonNull String registryKey) {
-        List<SkrJooqConverter<?, ?>> removeCandidates = converters.entrySet().stream()
-            .filter(e -> registryKey.equals(e.getValue()))
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toList());
-        removeCandidates.forEach(converters::remove);
-        clearCache();
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            List<SkrJooqConverter<?, ?>> converters = new ArrayList<>();
+            List<String> registryKeys = new ArrayList<>();
+            for (int i = 0; i < current.converters.length; i++) {
+                if (registryKey.equals(current.registryKeys[i])) continue;
+                converters.add(current.converters[i]);
+                registryKeys.add(current.registryKeys[i]);
+            }
+            snapshot = new Snapshot(converters.toArray(new SkrJooqConverter<?, ?>[0]),
+                registryKeys.toArray(new String[0]), current.generation + 1);
+        }
     }
 
     /**
      * Finds the best matching converter for the given model and Jooq types.
      * <p>
      * The converter with the highest matching priority is returned.
-     * Results are cached for performance optimization.
+     * Results are cached for performance optimization, including type pairs no converter
+     * matches. Converters whose {@link SkrJooqConverter#cacheable()} is false are matched
+     * again on every lookup.
      *
      * @param modelType the model type
      * @param jooqType the Jooq type
      * @return the best matching converter, or null if no match found
      */
     public SkrJooqConverter<?, ?> matchConverter(Type modelType, Type jooqType) {
-        ConverterCacheKey cacheKey = new ConverterCacheKey(modelType, jooqType);
-        
+        Snapshot current = snapshot;
+
         // Check cache first
-        SkrJooqConverter<?, ?> cachedConverter = converterCache.get(cacheKey);
-        if (cachedConverter != null) {
-            return cachedConverter;
+        Map<Type, Object> jooqTypeCache = current.converterCache.get(modelType);
+        if (jooqTypeCache != null) {
+            Object cachedConverter = jooqTypeCache.get(jooqType);
+            if (cachedConverter != null) {
+                return cachedConverter == NO_CONVERTER ? null : (SkrJooqConverter<?, ?>) cachedConverter;
+            }
         }
-        
+
         // Cache miss, perform matching
         int maxPriority = MISMATCH;
         SkrJooqConverter<?, ?> matchedConverter = null;
-        for (SkrJooqConverter<?, ?> converter : converters.keySet()) {
+        for (SkrJooqConverter<?, ?> converter : current.converters) {
             int priority = converter.match(modelType, jooqType);
             if (priority < 0) continue;
             if (priority > maxPriority) {
@@ -138,21 +200,88 @@ public class ConverterRegistry {
                 matchedConverter = converter;
             }
         }
-        
-        // Cache the result (including null results to avoid repeated failed lookups)
-        if (matchedConverter != null) {
-            converterCache.put(cacheKey, matchedConverter);
+
+        // Cache the result (including null results to avoid repeated failed lookups),
+        // unless the matched converter opts out of caching
+        if (matchedConverter == null || matchedConverter.cacheable()) {
+            if (jooqTypeCache == null) {
+                jooqTypeCache = current.converterCache.computeIfAbsent(modelType, key -> new ConcurrentHashMap<>());
+            }
+            jooqTypeCache.put(jooqType, matchedConverter != null ? matchedConverter : NO_CONVERTER);
         }
-        
+
         return matchedConverter;
     }
 
+    /**
+     * Report a value that can't be converted because no converter matches its type pair.
+     * A warning is logged on the first miss of each type pair, further misses are only
+     * counted, see {@link #getConverterMisses()}. Once {@link #MAX_CONVERTER_MISSES} type
+     * pairs are counted, misses of new type pairs are neither logged nor counted.
+     *
+     * @param modelType the model type
+     * @param jooqType the Jooq type
+     */
+    public void reportConverterMiss(Type modelType, Type jooqType) {
+        ConverterMiss miss = new ConverterMiss(modelType, jooqType);
+        LongAdder counter = converterMisses.get(miss);
+        if (counter == null) {
+            if (converterMisses.size() >= MAX_CONVERTER_MISSES) {
+                if (converterMissesCapped.compareAndSet(false, true)) {
+                    log.warn("Converter misses of more than {} type pairs, misses of further type pairs "
+                        + "are ignored until the counters are reset", MAX_CONVERTER_MISSES);
+                }
+                return;
+            }
+            LongAdder newCounter = new LongAdder();
+            counter = converterMisses.putIfAbsent(miss, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+                log.warn("No converter found for model type {} and jooq type {}, "
+                    + "further misses of this type pair are only counted", modelType, jooqType);
+            }
+        }
+        counter.increment();
+    }
+
+    /**
+     * @return number of reported misses by type pair
+     */
+    public Map<ConverterMiss, Long> getConverterMisses() {
+        Map<ConverterMiss, Long> misses = new LinkedHashMap<>();
+        converterMisses.forEach((miss, counter) -> misses.put(miss, counter.sum()));
+        return misses;
+    }
+
+    /**
+     * Reset miss counters, the next miss of each type pair is logged again.
+     */
+    public void resetConverterMisses() {
+        converterMisses.clear();
+        converterMissesCapped.set(false);
+    }
+
     /**
      * Clears all cached converter matching results.
      * <p>
-     * This method is automatically called when converters are registered or unregistered.
+     * Registering or unregistering converters starts over with an empty cache, so this is
+     * only needed when the matching result of a registered converter changes.
      */
     public void clearCache() {
-        converterCache.clear();
+        synchronized (writeLock) {
+            Snapshot current = snapshot;
+            snapshot = new Snapshot(current.converters, current.registryKeys, current.generation + 1);
+        }
+    }
+
+    /**
+     * Generation of the registered converters and their matching results, increased whenever
+     * converters are registered or unregistered, or the cache is cleared. Converters matched
+     * ahead of time, e.g. by mapping plans, are stale once the generation changes.
+     *
+     * @return the current generation
+     */
+    public long getGeneration() {
+        return snapshot.generation;
     }
 }
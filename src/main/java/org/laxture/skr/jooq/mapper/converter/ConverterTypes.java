@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper.converter;
+
+import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
+
+import java.lang.reflect.Type;
+
+/**
+ * Model and Jooq types of converter classes, resolved from their {@link SkrJooqConverter}
+ * type arguments once per class.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+final class ConverterTypes {
+
+    private static final ClassValue<Type[]> TYPES = new ClassValue<>() {
+        @Override
+        protected Type[] computeValue(Class<?> converterClass) {
+            Type[] genericTypes = ReflectionUtils.getGenericParameterForClass(converterClass, SkrJooqConverter.class);
+            assert genericTypes != null && genericTypes.length == 2;
+            return genericTypes;
+        }
+    };
+
+    private ConverterTypes() {}
+
+    static Type getModelType(Class<?> converterClass) {
+        return TYPES.get(converterClass)[0];
+    }
+
+    static Type getJooqType(Class<?> converterClass) {
+        return TYPES.get(converterClass)[1];
+    }
+}
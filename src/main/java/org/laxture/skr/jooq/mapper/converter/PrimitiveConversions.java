@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper.converter;
+
+import org.laxture.skr.jooq.mapper.misc.MapperConversionException;
+import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Conversion matrix of primitive, wrapper, {@link BigDecimal}, {@link BigInteger} and
+ * {@link String} types. The conversion of each (source class, target class) pair is
+ * resolved once into a direct function.
+ * <p>
+ * Semantics of numeric conversions:
+ * <ul>
+ *   <li>fractions are truncated toward zero when converted to integral types</li>
+ *   <li>values out of the target type's range, NaN and infinity throw
+ *       {@link MapperConversionException} instead of wrapping around</li>
+ *   <li>numbers convert to Boolean only from 0 and 1, Booleans convert to 0 and 1</li>
+ *   <li>Strings are trimmed and parsed, integral types accept decimal notation</li>
+ * </ul>
+ * Pairs involving Character and a number are not in the matrix.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+final class PrimitiveConversions {
+
+    private static final Set<Class<?>> INTEGRAL_TYPES = Set.of(Byte.class, Short.class, Integer.class, Long.class);
+    private static final Set<Class<?>> SUPPORTED_TYPES = Set.of(
+        Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+        Float.class, Double.class, BigInteger.class, BigDecimal.class, String.class);
+
+    /** conversions by target class, empty for pairs not in the matrix */
+    private static final ClassValue<Map<Class<?>, Optional<Function<Object, Object>>>> CONVERSIONS = new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, Optional<Function<Object, Object>>> computeValue(Class<?> sourceClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private static final double LONG_RANGE = 0x1p63;
+
+    private PrimitiveConversions() {}
+
+    /**
+     * Find conversion of values of the source class to the target class.
+     *
+     * @param sourceClass the class of values to be converted
+     * @param targetClass the target class, primitive classes are boxed
+     * @return the conversion, or empty if the pair is not in the matrix
+     */
+    static Optional<Function<Object, Object>> find(Class<?> sourceClass, Class<?> targetClass) {
+        Map<Class<?>, Optional<Function<Object, Object>>> conversions = CONVERSIONS.get(sourceClass);
+        Optional<Function<Object, Object>> conversion = conversions.get(targetClass);
+        if (conversion == null) {
+            conversion = Optional.ofNullable(create(sourceClass, targetClass));
+            conversions.put(targetClass, conversion);
+        }
+        return conversion;
+    }
+
+    private static Function<Object, Object> create(Class<?> sourceClass, Class<?> targetClass) {
+        Class<?> source = ReflectionUtils.toBoxedClass(sourceClass);
+        Class<?> target = ReflectionUtils.toBoxedClass(targetClass);
+        if (!SUPPORTED_TYPES.contains(source) || !SUPPORTED_TYPES.contains(target)) return null;
+        if (source == target) return value -> value;
+
+        Function<Object, Object> conversion = conversion(source, target);
+        if (conversion == null) return null;
+        return value -> {
+            try {
+                return conversion.apply(value);
+            } catch (ArithmeticException | IllegalArgumentException e) {
+                throw new MapperConversionException(source, target, e);
+            }
+        };
+    }
+
+    private static Function<Object, Object> conversion(Class<?> source, Class<?> target) {
+        if (target == String.class) return String::valueOf;
+        if (source == String.class) return fromString(target);
+        if (source == Character.class || target == Character.class) return null;
+        if (target == Boolean.class) return value -> toBoolean(((Number) value).doubleValue());
+        if (source == Boolean.class) {
+            Function<Object, Object> fromInteger = conversion(Integer.class, target);
+            return value -> fromInteger.apply((Boolean) value ? 1 : 0);
+        }
+        return fromNumber(source, target);
+    }
+
+    //*************************************************************************
+    // Number Conversions
+    //*************************************************************************
+
+    private static Function<Object, Object> fromNumber(Class<?> source, Class<?> target) {
+        if (target == Long.class) return toLong(source);
+        if (target == Integer.class) {
+            Function<Object, Object> toLong = toLong(source);
+            return value -> Math.toIntExact((Long) toLong.apply(value));
+        }
+        if (target == Short.class) {
+            Function<Object, Object> toLong = toLong(source);
+            return value -> (short) checkRange((Long) toLong.apply(value), Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+        if (target == Byte.class) {
+            Function<Object, Object> toLong = toLong(source);
+            return value -> (byte) checkRange((Long) toLong.apply(value), Byte.MIN_VALUE, Byte.MAX_VALUE);
+        }
+        if (target == Double.class) {
+            if (source == BigInteger.class || source == BigDecimal.class) {
+                return value -> checkFinite(((Number) value).doubleValue());
+            }
+            return value -> ((Number) value).doubleValue();
+        }
+        if (target == Float.class) return value -> toFloat(((Number) value).doubleValue());
+        if (target == BigInteger.class) {
+            if (INTEGRAL_TYPES.contains(source)) return value -> BigInteger.valueOf(((Number) value).longValue());
+            if (source == BigDecimal.class) return value -> ((BigDecimal) value).toBigInteger();
+            return value -> new BigDecimal(((Number) value).doubleValue()).toBigInteger();
+        }
+        if (target == BigDecimal.class) {
+            if (INTEGRAL_TYPES.contains(source)) return value -> BigDecimal.valueOf(((Number) value).longValue());
+            if (source == BigInteger.class) return value -> new BigDecimal((BigInteger) value);
+            // decimal representation of the value as written, e.g. 0.1f is 0.1 rather than 0.100000001
+            if (source == Float.class) return value -> new BigDecimal(value.toString());
+            return value -> BigDecimal.valueOf((Double) value);
+        }
+        return null;
+    }
+
+    private static Function<Object, Object> toLong(Class<?> source) {
+        if (INTEGRAL_TYPES.contains(source)) return value -> ((Number) value).longValue();
+        if (source == BigInteger.class) return value -> ((BigInteger) value).longValueExact();
+        if (source == BigDecimal.class) return value -> ((BigDecimal) value).toBigInteger().longValueExact();
+        return value -> toLong(((Number) value).doubleValue());
+    }
+
+    private static long toLong(double value) {
+        if (Double.isNaN(value) || value >= LONG_RANGE || value < -LONG_RANGE) {
+            throw new ArithmeticException(value + " out of long range");
+        }
+        return (long) value;
+    }
+
+    private static long checkRange(long value, long min, long max) {
+        if (value < min || value > max) {
+            throw new ArithmeticException(value + " out of range [" + min + ", " + max + "]");
+        }
+        return value;
+    }
+
+    private static double checkFinite(double value) {
+        if (Double.isInfinite(value)) throw new ArithmeticException("out of double range");
+        return value;
+    }
+
+    private static float toFloat(double value) {
+        if (!Double.isInfinite(value) && Math.abs(value) > Float.MAX_VALUE) {
+            throw new ArithmeticException(value + " out of float range");
+        }
+        return (float) value;
+    }
+
+    private static boolean toBoolean(double value) {
+        if (value == 0) return false;
+        if (value == 1) return true;
+        throw new IllegalArgumentException(value + " is neither 0 nor 1");
+    }
+
+    //*************************************************************************
+    // String Conversions
+    //*************************************************************************
+
+    private static Function<Object, Object> fromString(Class<?> target) {
+        if (target == Character.class) {
+            return value -> {
+                String str = (String) value;
+                if (str.isEmpty()) throw new IllegalArgumentException("empty string");
+                return str.charAt(0);
+            };
+        }
+        if (target == Boolean.class) return value -> parseBoolean(((String) value).trim());
+        if (target == Double.class) return value -> Double.valueOf(((String) value).trim());
+        if (target == Float.class) return value -> toFloat(Double.parseDouble(((String) value).trim()));
+        if (target == BigDecimal.class) return value -> new BigDecimal(((String) value).trim());
+        if (target == BigInteger.class) return value -> new BigDecimal(((String) value).trim()).toBigInteger();
+
+        // integral types, parse long directly and fall back to decimal notation
+        Function<Object, Object> fromLong = target == Long.class ? value -> value : fromNumber(Long.class, target);
+        return value -> fromLong.apply(parseLong(((String) value).trim()));
+    }
+
+    private static long parseLong(String str) {
+        try {
+            return Long.parseLong(str);
+        } catch (NumberFormatException e) {
+            return new BigDecimal(str).toBigInteger().longValueExact();
+        }
+    }
+
+    private static boolean parseBoolean(String str) {
+        switch (str.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "y", "on", "1": return true;
+            case "false", "no", "n", "off", "0": return false;
+            default: throw new IllegalArgumentException("unrecognized boolean " + str);
+        }
+    }
+}
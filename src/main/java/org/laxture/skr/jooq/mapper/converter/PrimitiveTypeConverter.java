@@ -22,10 +22,14 @@ import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Converter for type conversion operations.
  * Supports primitive types, wrapper types, and java.math types (BigDecimal, BigInteger).
+ * Values are converted through {@link PrimitiveConversions}, see it for overflow and
+ * rounding semantics.
  *
  * @author <a href="https://github.com/hank-cp">Hank CP</a>
  */
@@ -47,11 +51,22 @@ public class PrimitiveTypeConverter implements SkrJooqConverter<Object, Object>
 
     @Override
     public Object convertToJooqType(@NonNull Object mVal, Class<?> jooqType) {
-        return ConvertUtils.convert(mVal, jooqType);
+        return convert(mVal, jooqType);
     }
 
     @Override
     public Object convertToModelType(@NonNull Object jVal, Type modelType) {
-        return ConvertUtils.convert(jVal, ReflectionUtils.toClass(modelType));
+        return convert(jVal, ReflectionUtils.toClass(modelType));
+    }
+
+    /**
+     * Convert by the {@link PrimitiveConversions} matrix, pairs not in the matrix fall back
+     * to {@link ConvertUtils}.
+     */
+    static Object convert(Object value, Class<?> targetType) {
+        Optional<Function<Object, Object>> conversion = PrimitiveConversions.find(value.getClass(), targetType);
+        // pairs not in the matrix, e.g. Character and numbers, are left to ConvertUtils
+        if (conversion.isEmpty()) return ConvertUtils.convert(value, targetType);
+        return conversion.get().apply(value);
     }
 }
@@ -29,16 +29,18 @@ public interface SkrJooqConverter<ModelType, JooqType> {
 
     int MISMATCH = -1;
 
+    /**
+     * @return model type of the converter, resolved from its type arguments once per class
+     */
     default Type getModelType() {
-        Type[] genericTypes = ReflectionUtils.getGenericParameterForClass(this.getClass(), SkrJooqConverter.class);
-        assert genericTypes != null && genericTypes.length == 2;
-        return genericTypes[0];
+        return ConverterTypes.getModelType(this.getClass());
     }
 
+    /**
+     * @return Jooq type of the converter, resolved from its type arguments once per class
+     */
     default Type getJooqType() {
-        Type[] genericTypes = ReflectionUtils.getGenericParameterForClass(this.getClass(), SkrJooqConverter.class);
-        assert genericTypes != null && genericTypes.length == 2;
-        return genericTypes[1];
+        return ConverterTypes.getJooqType(this.getClass());
     }
 
     /**
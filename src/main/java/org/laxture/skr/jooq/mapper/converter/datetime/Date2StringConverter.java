@@ -33,25 +33,26 @@ public class Date2StringConverter implements SkrJooqConverter<Date, String> {
 
     private static final String FORMAT_DATE = "yyyy-MM-dd";
 
-    private final SimpleDateFormat formatter;
+    /** SimpleDateFormat is not thread-safe, so each thread formats with its own instance */
+    private final ThreadLocal<SimpleDateFormat> formatter;
 
     public Date2StringConverter() {
-        this.formatter = new SimpleDateFormat(FORMAT_DATE);
+        this(FORMAT_DATE);
     }
 
     public Date2StringConverter(String dateFormat) {
-        this.formatter = new SimpleDateFormat(FORMAT_DATE);
+        this.formatter = ThreadLocal.withInitial(() -> new SimpleDateFormat(dateFormat));
     }
 
     @Override
     public String convertToJooqType(@NonNull Date mVal, Class<?> jooqType) {
-        return formatter.format(mVal);
+        return formatter.get().format(mVal);
     }
 
     @Override
     public Date convertToModelType(@NonNull String jVal, Type modelType) {
         try {
-            return new Date(formatter.parse(jVal).getTime());
+            return new Date(formatter.get().parse(jVal).getTime());
         } catch (ParseException e) {
             throw new MapperConversionException(getJooqType(), getModelType(), e);
         }
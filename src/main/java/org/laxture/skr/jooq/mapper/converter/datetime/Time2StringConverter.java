@@ -33,25 +33,26 @@ public class Time2StringConverter implements SkrJooqConverter<Time, String> {
 
     private static final String FORMAT_TIME = "HH:mm:ss";
 
-    private final SimpleDateFormat formatter;
+    /** SimpleDateFormat is not thread-safe, so each thread formats with its own instance */
+    private final ThreadLocal<SimpleDateFormat> formatter;
 
     public Time2StringConverter() {
-        this.formatter = new SimpleDateFormat(FORMAT_TIME);
+        this(FORMAT_TIME);
     }
 
     public Time2StringConverter(String timeFormat) {
-        this.formatter = new SimpleDateFormat(timeFormat);
+        this.formatter = ThreadLocal.withInitial(() -> new SimpleDateFormat(timeFormat));
     }
 
     @Override
     public String convertToJooqType(@NonNull Time mVal, Class<?> jooqType) {
-        return formatter.format(mVal);
+        return formatter.get().format(mVal);
     }
 
     @Override
     public Time convertToModelType(@NonNull String jVal, Type modelType) {
         try {
-            return new Time(formatter.parse(jVal).getTime());
+            return new Time(formatter.get().parse(jVal).getTime());
         } catch (ParseException e) {
             throw new MapperConversionException(getJooqType(), getModelType(), e);
         }
@@ -33,25 +33,26 @@ public class Timestamp2StringConverter implements SkrJooqConverter<Timestamp, St
 
     private static final String FORMAT_TIMESTAMP = "yyyy-MM-dd HH:mm:ss";
 
-    private final SimpleDateFormat formatter;
+    /** SimpleDateFormat is not thread-safe, so each thread formats with its own instance */
+    private final ThreadLocal<SimpleDateFormat> formatter;
 
     public Timestamp2StringConverter() {
-        this.formatter = new SimpleDateFormat(FORMAT_TIMESTAMP);
+        this(FORMAT_TIMESTAMP);
     }
 
     public Timestamp2StringConverter(String timestampFormat) {
-        this.formatter = new SimpleDateFormat(timestampFormat);
+        this.formatter = ThreadLocal.withInitial(() -> new SimpleDateFormat(timestampFormat));
     }
 
     @Override
     public String convertToJooqType(@NonNull Timestamp mVal, Class<?> jooqType) {
-        return formatter.format(mVal);
+        return formatter.get().format(mVal);
     }
 
     @Override
     public Timestamp convertToModelType(@NonNull String jVal, Type modelType) {
         try {
-            return new Timestamp(formatter.parse(jVal).getTime());
+            return new Timestamp(formatter.get().parse(jVal).getTime());
         } catch (ParseException e) {
             throw new MapperConversionException(getJooqType(), getModelType(), e);
         }
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper.converter.json;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.NonNull;
+import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default {@link JsonCodec} backed by a Jackson {@link ObjectMapper}. Readers are resolved
+ * from the full generic model type, e.g. <code>List&lt;Map&lt;String, Foo&gt;&gt;</code>,
+ * and cached per type, so Jackson's root type resolution happens once per type instead of
+ * per value. Lists and primitive arrays are read element by element from a streaming parser.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+public class JacksonJsonCodec implements JsonCodec {
+
+    /** marker of elements that aren't read from a single scalar token */
+    private static final Object NOT_SCALAR = new Object();
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public JacksonJsonCodec(@NonNull ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer();
+    }
+
+    /**
+     * @return the object mapper, e.g. to create streaming parsers
+     */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * @param modelType the generic model type
+     * @return the cached reader of the model type
+     */
+    public ObjectReader readerFor(Type modelType) {
+        ObjectReader reader = readers.get(modelType);
+        if (reader == null) {
+            reader = readers.computeIfAbsent(modelType,
+                type -> objectMapper.readerFor(objectMapper.getTypeFactory().constructType(type)));
+        }
+        return reader;
+    }
+
+    @Override
+    public <T> T read(String json, Type modelType) throws JsonProcessingException {
+        return readerFor(modelType).readValue(json);
+    }
+
+    /**
+     * Read JSON array into an {@link ArrayList} element by element from a streaming parser.
+     * Number, String and Boolean elements are read from their tokens directly, other
+     * elements are bound by the cached reader of the element type.
+     * <p>
+     * The list type is only bound as a whole if it can't hold an {@link ArrayList}.
+     */
+    @Override
+    public List<?> readList(String json, Type listType, Type elementType) throws IOException {
+        if (!ReflectionUtils.toClass(listType).isAssignableFrom(ArrayList.class)) return read(json, listType);
+        Class<?> elementClass = ReflectionUtils.toClass(elementType);
+        ObjectReader elementReader = null;
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (!startArray(parser)) return null;
+            List<Object> list = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) throw new JsonParseException(parser, "Unexpected end of JSON array");
+                Object element = readScalar(parser, token, elementClass);
+                if (element == NOT_SCALAR) {
+                    if (elementReader == null) elementReader = readerFor(elementType);
+                    element = elementReader.readValue(parser);
+                }
+                list.add(element);
+            }
+            return list;
+        }
+    }
+
+    /**
+     * Read JSON array of numbers into a primitive array from a streaming parser, without
+     * boxing the elements.
+     */
+    @Override
+    public Object readPrimitiveArray(String json, Class<?> arrayType) throws IOException {
+        Class<?> componentType = arrayType.getComponentType();
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (!startArray(parser)) return null;
+            if (componentType == long.class) {
+                long[] array = new long[16];
+                int size = 0;
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                    if (size == array.length) array = Arrays.copyOf(array, size << 1);
+                    array[size++] = switch (checkNumber(parser, token)) {
+                        case VALUE_NULL -> 0L;
+                        case VALUE_STRING -> Long.parseLong(parser.getText().trim());
+                        default -> parser.getLongValue();
+                    };
+                }
+                return Arrays.copyOf(array, size);
+            }
+            if (componentType == int.class) {
+                int[] array = new int[16];
+                int size = 0;
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                    if (size == array.length) array = Arrays.copyOf(array, size << 1);
+                    array[size++] = switch (checkNumber(parser, token)) {
+                        case VALUE_NULL -> 0;
+                        case VALUE_STRING -> Integer.parseInt(parser.getText().trim());
+                        default -> parser.getIntValue();
+                    };
+                }
+                return Arrays.copyOf(array, size);
+            }
+            if (componentType == double.class) {
+                double[] array = new double[16];
+                int size = 0;
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                    if (size == array.length) array = Arrays.copyOf(array, size << 1);
+                    array[size++] = switch (checkNumber(parser, token)) {
+                        case VALUE_NULL -> 0d;
+                        case VALUE_STRING -> Double.parseDouble(parser.getText().trim());
+                        default -> parser.getDoubleValue();
+                    };
+                }
+                return Arrays.copyOf(array, size);
+            }
+            throw new IllegalArgumentException("Unsupported primitive array of " + componentType);
+        }
+    }
+
+    private static boolean startArray(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_NULL) return false;
+        if (token != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected JSON array but got " + token);
+        }
+        return true;
+    }
+
+    private static JsonToken checkNumber(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT
+            || token == JsonToken.VALUE_NULL || token == JsonToken.VALUE_STRING) {
+            return token;
+        }
+        throw new JsonParseException(parser, "Expected number but got " + token);
+    }
+
+    private static Object readScalar(JsonParser parser, JsonToken token, Class<?> elementClass) throws IOException {
+        if (token == JsonToken.VALUE_NULL) return null;
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            if (elementClass == Long.class) return parser.getLongValue();
+            if (elementClass == Integer.class) return parser.getIntValue();
+            if (elementClass == Double.class) return parser.getDoubleValue();
+        } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            if (elementClass == Double.class) return parser.getDoubleValue();
+        } else if (token == JsonToken.VALUE_STRING) {
+            if (elementClass == String.class) return parser.getText();
+        } else if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            if (elementClass == Boolean.class) return token == JsonToken.VALUE_TRUE;
+        }
+        return NOT_SCALAR;
+    }
+
+    @Override
+    public String write(Object value) throws JsonProcessingException {
+        return writer.writeValueAsString(value);
+    }
+}
@@ -15,9 +15,7 @@
  */
 package org.laxture.skr.jooq.mapper.converter.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.CollectionType;
 import lombok.NonNull;
 import org.jooq.JSON;
 import org.laxture.skr.jooq.mapper.converter.SkrJooqConverter;
@@ -35,10 +33,14 @@ import java.util.List;
  */
 public class JsonArrayConverter implements SkrJooqConverter<List<?>, JSON> {
 
-    private final ObjectMapper objectMapper;
+    private final JsonCodec jsonCodec;
 
     public JsonArrayConverter(@NonNull ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+        this(new JacksonJsonCodec(objectMapper));
+    }
+
+    public JsonArrayConverter(@NonNull JsonCodec jsonCodec) {
+        this.jsonCodec = jsonCodec;
     }
 
     @Override
@@ -53,7 +55,7 @@ public class JsonArrayConverter implements SkrJooqConverter<List<?>, JSON> {
     @Override
     public JSON convertToJooqType(List<?> mVal, Class<?> jooqType) {
         try {
-            return JSON.valueOf(objectMapper.writeValueAsString(mVal));
+            return JSON.valueOf(jsonCodec.write(mVal));
         } catch (IOException e) {
             throw new MapperConversionException(getModelType(), getJooqType(), e);
         }
@@ -61,18 +63,15 @@ public class JsonArrayConverter implements SkrJooqConverter<List<?>, JSON> {
 
     @Override
     public List<?> convertToModelType(JSON jVal, Type modelType) {
-        if ("null".equals(jVal.toString())) return null;
+        if (JsonCodec.isJsonNull(jVal.data())) return null;
 
         Type elementType = ReflectionUtils.getComponentTypeOfListOrArray(modelType);
         if (elementType == null) {
             throw new MapperConversionException(getJooqType(), getModelType());
         }
-        Class<?> elementClass = ReflectionUtils.toClass(elementType);
-        CollectionType collectionType = objectMapper.getSerializationConfig()
-            .getTypeFactory().constructCollectionType(List.class, elementClass);
         try {
-            return objectMapper.readValue(jVal.data(), collectionType);
-        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return jsonCodec.readList(jVal.data(), modelType, elementType);
+        } catch (IllegalArgumentException | IOException e) {
             throw new MapperConversionException(getJooqType(), getModelType(), e);
         }
     }
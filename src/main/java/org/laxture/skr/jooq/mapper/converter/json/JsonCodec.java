@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper.converter.json;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * JSON serialization used by the JSON converters and the leftover collector, so that the
+ * default {@link JacksonJsonCodec} can be replaced by a faster codec, e.g. one with
+ * pre-compiled serializers or a shared reader pool.
+ * <p>
+ * Implementations must be thread-safe.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+public interface JsonCodec {
+
+    /**
+     * Read JSON data into the model type.
+     *
+     * @param json the JSON data
+     * @param modelType the generic model type, e.g. <code>Map&lt;String, Foo&gt;</code>
+     * @return the value
+     */
+    <T> T read(String json, Type modelType) throws IOException;
+
+    /**
+     * @param value the value
+     * @return the JSON data of the value
+     */
+    String write(Object value) throws IOException;
+
+    /**
+     * Read JSON array into a {@link List} assignable from {@link java.util.ArrayList}.
+     * Codecs may override it to read elements one by one instead of binding the whole list.
+     *
+     * @param json the JSON data
+     * @param listType the generic list type
+     * @param elementType the generic element type
+     * @return the list, or null for the <code>null</code> literal
+     */
+    default List<?> readList(String json, Type listType, Type elementType) throws IOException {
+        return read(json, listType);
+    }
+
+    /**
+     * Read JSON array of numbers into <code>long[]</code>, <code>int[]</code> or
+     * <code>double[]</code>. Codecs may override it to read elements without boxing.
+     *
+     * @param json the JSON data
+     * @param arrayType the primitive array type
+     * @return the primitive array, or null for the <code>null</code> literal
+     */
+    default Object readPrimitiveArray(String json, Class<?> arrayType) throws IOException {
+        return read(json, arrayType);
+    }
+
+    /**
+     * Check whether JSON data is the <code>null</code> literal, by scanning its leading
+     * characters instead of comparing a copy.
+     *
+     * @param json the JSON data
+     * @return true if the data is null or the <code>null</code> literal
+     */
+    static boolean isJsonNull(String json) {
+        if (json == null) return true;
+        int length = json.length();
+        int i = skipWhitespace(json, 0, length);
+        if (!json.startsWith("null", i)) return false;
+        return skipWhitespace(json, i + 4, length) == length;
+    }
+
+    private static int skipWhitespace(String json, int from, int length) {
+        int i = from;
+        while (i < length) {
+            char c = json.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') break;
+            i++;
+        }
+        return i;
+    }
+}
@@ -15,7 +15,6 @@
  */
 package org.laxture.skr.jooq.mapper.converter.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.NonNull;
 import org.jooq.JSON;
@@ -35,10 +34,21 @@ import java.util.Map;
  */
 public class JsonObjectConverter implements SkrJooqConverter<Object, JSON> {
 
+    /**
+     * @deprecated use {@link #jsonCodec}, this is null unless the converter is created with an
+     *             {@link ObjectMapper} or a {@link JacksonJsonCodec}
+     */
+    @Deprecated
     protected final ObjectMapper objectMapper;
+    protected final JsonCodec jsonCodec;
 
     public JsonObjectConverter(@NonNull ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+        this(new JacksonJsonCodec(objectMapper));
+    }
+
+    public JsonObjectConverter(@NonNull JsonCodec jsonCodec) {
+        this.objectMapper = jsonCodec instanceof JacksonJsonCodec jackson ? jackson.getObjectMapper() : null;
+        this.jsonCodec = jsonCodec;
     }
 
     @Override
@@ -54,7 +64,7 @@ public class JsonObjectConverter implements SkrJooqConverter<Object, JSON> {
     @Override
     public JSON convertToJooqType(@NonNull Object mVal, Class<?> jooqType) {
         try {
-            return JSON.valueOf(objectMapper.writeValueAsString(mVal));
+            return JSON.valueOf(jsonCodec.write(mVal));
         } catch (IOException e) {
             throw new MapperConversionException(getModelType(), getJooqType(), e);
         }
@@ -62,10 +72,10 @@ public class JsonObjectConverter implements SkrJooqConverter<Object, JSON> {
 
     @Override
     public Object convertToModelType(@NonNull JSON jVal, Type modelType) {
-        if ("null".equals(jVal.toString())) return null;
+        if (JsonCodec.isJsonNull(jVal.data())) return null;
         try {
-            return objectMapper.readValue(jVal.data(), ReflectionUtils.toClass(modelType));
-        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return jsonCodec.read(jVal.data(), modelType);
+        } catch (IllegalArgumentException | IOException e) {
             throw new MapperConversionException(getJooqType(), getModelType(), e);
         }
     }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper.converter.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.NonNull;
+import org.jooq.JSON;
+import org.jooq.JSONB;
+import org.laxture.skr.jooq.mapper.converter.SkrJooqConverter;
+import org.laxture.skr.jooq.mapper.misc.MapperConversionException;
+import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Converter for converting JSON or JSONB arrays of numbers to <code>long[]</code>,
+ * <code>int[]</code> or <code>double[]</code>. Elements are read token by token from a
+ * streaming parser, without boxing.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+public class JsonPrimitiveArrayConverter implements SkrJooqConverter<Object, Object> {
+
+    private final JsonCodec jsonCodec;
+
+    public JsonPrimitiveArrayConverter(@NonNull ObjectMapper objectMapper) {
+        this(new JacksonJsonCodec(objectMapper));
+    }
+
+    public JsonPrimitiveArrayConverter(@NonNull JsonCodec jsonCodec) {
+        this.jsonCodec = jsonCodec;
+    }
+
+    @Override
+    public int match(@NonNull Type modelType, @NonNull Type jooqType) {
+        Class<?> modelClass = ReflectionUtils.toClass(modelType);
+        if ((modelClass == long[].class || modelClass == int[].class || modelClass == double[].class)
+            && (ReflectionUtils.isAssignable(JSON.class, jooqType) || ReflectionUtils.isAssignable(JSONB.class, jooqType))) {
+            return 12;
+        }
+        return MISMATCH;
+    }
+
+    @Override
+    public Object convertToJooqType(@NonNull Object mVal, Class<?> jooqType) {
+        try {
+            String json = jsonCodec.write(mVal);
+            return JSONB.class.isAssignableFrom(jooqType) ? JSONB.valueOf(json) : JSON.valueOf(json);
+        } catch (IOException e) {
+            throw new MapperConversionException(mVal.getClass(), jooqType, e);
+        }
+    }
+
+    @Override
+    public Object convertToModelType(@NonNull Object jVal, Type modelType) {
+        String json = jVal instanceof JSONB jsonb ? jsonb.data() : ((JSON) jVal).data();
+        try {
+            return jsonCodec.readPrimitiveArray(json, ReflectionUtils.toClass(modelType));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new MapperConversionException(jVal.getClass(), modelType, e);
+        }
+    }
+}
@@ -15,9 +15,7 @@
  */
 package org.laxture.skr.jooq.mapper.converter.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.type.MapType;
 import lombok.NonNull;
 import org.jooq.JSONB;
 import org.laxture.skr.jooq.mapper.converter.SkrJooqConverter;
@@ -34,16 +32,27 @@ import java.util.Map;
  */
 public class JsonbObject2MapConverter implements SkrJooqConverter<Map<String, Object>, JSONB> {
 
+    /**
+     * @deprecated use {@link #jsonCodec}, this is null unless the converter is created with an
+     *             {@link ObjectMapper} or a {@link JacksonJsonCodec}
+     */
+    @Deprecated
     protected final ObjectMapper objectMapper;
+    protected final JsonCodec jsonCodec;
 
     public JsonbObject2MapConverter(@NonNull ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+        this(new JacksonJsonCodec(objectMapper));
+    }
+
+    public JsonbObject2MapConverter(@NonNull JsonCodec jsonCodec) {
+        this.objectMapper = jsonCodec instanceof JacksonJsonCodec jackson ? jackson.getObjectMapper() : null;
+        this.jsonCodec = jsonCodec;
     }
 
     @Override
     public JSONB convertToJooqType(@NonNull Map<String, Object> mVal, Class<?> jooqType) {
         try {
-            return JSONB.valueOf(objectMapper.writeValueAsString(mVal));
+            return JSONB.valueOf(jsonCodec.write(mVal));
         } catch (IOException e) {
             throw new MapperConversionException(getModelType(), getJooqType(), e);
         }
@@ -51,12 +60,10 @@ public class JsonbObject2MapConverter implements SkrJooqConverter<Map<String, Ob
 
     @Override
     public Map<String, Object> convertToModelType(@NonNull JSONB jVal, Type modelType) {
-        if ("null".equals(jVal.toString())) return null;
+        if (JsonCodec.isJsonNull(jVal.data())) return null;
         try {
-            MapType mapType = objectMapper.getSerializationConfig()
-                .getTypeFactory().constructMapType(Map.class, String.class, Object.class);
-            return objectMapper.readValue(jVal.data(), mapType);
-        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return jsonCodec.read(jVal.data(), modelType);
+        } catch (IllegalArgumentException | IOException e) {
             throw new MapperConversionException(getJooqType(), getModelType(), e);
         }
     }
@@ -15,7 +15,6 @@
  */
 package org.laxture.skr.jooq.mapper.converter.json;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.jooq.JSONB;
 import org.laxture.skr.jooq.mapper.converter.SkrJooqConverter;
@@ -34,10 +33,14 @@ import java.util.Map;
  */
 public class JsonbObjectConverter implements SkrJooqConverter<Object, JSONB> {
 
-    private final ObjectMapper objectMapper;
+    private final JsonCodec jsonCodec;
 
     public JsonbObjectConverter(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+        this(new JacksonJsonCodec(objectMapper));
+    }
+
+    public JsonbObjectConverter(JsonCodec jsonCodec) {
+        this.jsonCodec = jsonCodec;
     }
 
     @Override
@@ -53,7 +56,7 @@ public class JsonbObjectConverter implements SkrJooqConverter<Object, JSONB> {
     @Override
     public JSONB convertToJooqType(Object mVal, Class<?> jooqType) {
         try {
-            return JSONB.valueOf(objectMapper.writeValueAsString(mVal));
+            return JSONB.valueOf(jsonCodec.write(mVal));
         } catch (IOException e) {
             throw new MapperConversionException(getModelType(), getJooqType(), e);
         }
@@ -61,10 +64,10 @@ public class JsonbObjectConverter implements SkrJooqConverter<Object, JSONB> {
 
     @Override
     public Object convertToModelType(JSONB jVal, Type modelType) {
-        if ("null".equals(jVal.toString())) return null;
+        if (JsonCodec.isJsonNull(jVal.data())) return null;
         try {
-            return objectMapper.readValue(jVal.data(), ReflectionUtils.toClass(modelType));
-        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return jsonCodec.read(jVal.data(), modelType);
+        } catch (IllegalArgumentException | IOException e) {
             throw new MapperConversionException(getJooqType(), getModelType(), e);
         }
     }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper.converter.json;
+
+import org.laxture.skr.jooq.mapper.misc.MapperConversionException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * JSON property whose value is deserialized on first {@link #get()}, e.g. for large JSON
+ * columns most code paths never read. Mapped by {@link LazyJsonConverter} and
+ * {@link LazyJsonbConverter}.
+ * <p>
+ * If the value is never accessed, the raw JSON data is written back unchanged when the
+ * model is unmapped. Once accessed, the value may have been modified, so it's serialized
+ * again.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+public final class LazyJson<T> {
+
+    private final String data;
+    private final JsonCodec codec;
+    private final Type valueType;
+    private volatile boolean resolved;
+    private T value;
+
+    LazyJson(String data, JsonCodec codec, Type valueType) {
+        this.data = data;
+        this.codec = codec;
+        this.valueType = valueType;
+    }
+
+    private LazyJson(T value) {
+        this.data = null;
+        this.codec = null;
+        this.valueType = null;
+        this.value = value;
+        this.resolved = true;
+    }
+
+    /**
+     * @param value the value
+     * @return a resolved instance holding the value, e.g. for models created in code
+     */
+    public static <T> LazyJson<T> of(T value) {
+        return new LazyJson<>(value);
+    }
+
+    /**
+     * @return the value, deserialized from the raw JSON data on first call
+     */
+    public T get() {
+        if (!resolved) {
+            synchronized (this) {
+                if (!resolved) {
+                    try {
+                        value = codec.read(data, valueType);
+                    } catch (IOException e) {
+                        throw new MapperConversionException(String.class, valueType, e);
+                    }
+                    resolved = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Replace the value, the raw JSON data is discarded.
+     *
+     * @param value the new value
+     */
+    public synchronized void set(T value) {
+        this.value = value;
+        this.resolved = true;
+    }
+
+    /**
+     * @return whether the value has been deserialized or set
+     */
+    public boolean isResolved() {
+        return resolved;
+    }
+
+    /**
+     * @return the raw JSON data, null if the value has been resolved
+     */
+    String getData() {
+        return resolved ? null : data;
+    }
+
+    @Override
+    public String toString() {
+        return resolved ? String.valueOf(value) : data;
+    }
+}
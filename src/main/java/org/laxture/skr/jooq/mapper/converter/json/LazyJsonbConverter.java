@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper.converter.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.NonNull;
+import org.jooq.JSONB;
+import org.laxture.skr.jooq.mapper.converter.SkrJooqConverter;
+import org.laxture.skr.jooq.mapper.misc.MapperConversionException;
+import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Converter for converting JSONB to {@link LazyJson}, the raw data is kept and only
+ * deserialized on first access.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+public class LazyJsonbConverter implements SkrJooqConverter<LazyJson<?>, JSONB> {
+
+    private final JsonCodec jsonCodec;
+
+    public LazyJsonbConverter(@NonNull ObjectMapper objectMapper) {
+        this(new JacksonJsonCodec(objectMapper));
+    }
+
+    public LazyJsonbConverter(@NonNull JsonCodec jsonCodec) {
+        this.jsonCodec = jsonCodec;
+    }
+
+    @Override
+    public int match(@NonNull Type modelType, @NonNull Type jooqType) {
+        if (ReflectionUtils.toClass(modelType) == LazyJson.class
+            && ReflectionUtils.isAssignable(JSONB.class, jooqType)) {
+            return 13;
+        }
+        return MISMATCH;
+    }
+
+    @Override
+    public JSONB convertToJooqType(@NonNull LazyJson<?> mVal, Class<?> jooqType) {
+        String data = mVal.getData();
+        if (data != null) return JSONB.valueOf(data);
+        try {
+            return JSONB.valueOf(jsonCodec.write(mVal.get()));
+        } catch (IOException e) {
+            throw new MapperConversionException(getModelType(), getJooqType(), e);
+        }
+    }
+
+    @Override
+    public LazyJson<?> convertToModelType(@NonNull JSONB jVal, Type modelType) {
+        if (JsonCodec.isJsonNull(jVal.data())) return null;
+        Type valueType = modelType instanceof ParameterizedType parameterizedType
+            ? parameterizedType.getActualTypeArguments()[0] : Object.class;
+        return new LazyJson<>(jVal.data(), jsonCodec, valueType);
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2019-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.laxture.skr.jooq.mapper.hook;
+
+import java.util.List;
+
+/**
+ * Hook for post-mapping operations on a whole batch of mapped models, e.g. loading
+ * associations of all models with one query.
+ *
+ * @author <a href="https://github.com/hank-cp">Hank CP</a>
+ */
+@FunctionalInterface
+public interface BatchMappingHook<E> {
+
+    /**
+     * @param models the mapped models, in record order
+     */
+    void postMapping(List<? extends E> models);
+}
@@ -18,13 +18,51 @@ package org.laxture.skr.jooq.mapper.misc;
 import org.apache.commons.lang3.StringUtils;
 import org.laxture.skr.jooq.mapper.TableFieldCaseType;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
 /**
  * Utility class for naming operations.
+ * <p>
+ * Translated names are kept in a bounded dictionary per {@link TableFieldCaseType}, since
+ * column and property names are a small fixed vocabulary. The same translation always
+ * returns the same String instance once it is cached.
  *
  * @author <a href="https://github.com/hank-cp">Hank CP</a>
  */
 public class NamingUtils {
 
+    /** max names cached per case type and direction, further names are translated every time */
+    private static final int MAX_CACHED_NAMES = 4096;
+
+    private static final Map<TableFieldCaseType, Map<String, String>> TO_CAMEL_CASE_CACHE = newDictionary();
+    private static final Map<TableFieldCaseType, Map<String, String>> FROM_CAMEL_CASE_CACHE = newDictionary();
+
+    private static Map<TableFieldCaseType, Map<String, String>> newDictionary() {
+        Map<TableFieldCaseType, Map<String, String>> dictionary = new EnumMap<>(TableFieldCaseType.class);
+        for (TableFieldCaseType caseType : TableFieldCaseType.values()) {
+            dictionary.put(caseType, new ConcurrentHashMap<>());
+        }
+        return dictionary;
+    }
+
+    private static String translate(Map<TableFieldCaseType, Map<String, String>> dictionary,
+                                    TableFieldCaseType tableFieldCaseType, String name,
+                                    BiFunction<TableFieldCaseType, String, String> translator) {
+        Map<String, String> names = dictionary.get(tableFieldCaseType);
+        String translated = names.get(name);
+        if (translated != null) return translated;
+
+        translated = translator.apply(tableFieldCaseType, name);
+        if (names.size() < MAX_CACHED_NAMES) {
+            String existing = names.putIfAbsent(name, translated);
+            if (existing != null) return existing;
+        }
+        return translated;
+    }
+
     /**
      * Converts a camelCase field name to the target case type.
      *
@@ -34,8 +72,11 @@ public class NamingUtils {
      */
     public static String convertFromCamelCase(TableFieldCaseType tableFieldCaseType,
                                               String name) {
-        if (name == null || name.isEmpty()) return name;
+        if (name == null || name.isEmpty() || tableFieldCaseType == TableFieldCaseType.CAMEL_CASE) return name;
+        return translate(FROM_CAMEL_CASE_CACHE, tableFieldCaseType, name, NamingUtils::translateFromCamelCase);
+    }
 
+    private static String translateFromCamelCase(TableFieldCaseType tableFieldCaseType, String name) {
         switch (tableFieldCaseType) {
             case CAMEL_CASE:
                 return name;
@@ -125,15 +166,17 @@ public class NamingUtils {
      */
     public static String convertToCamelCase(TableFieldCaseType tableFieldCaseType,
                                             String fieldName) {
-        if (fieldName == null || fieldName.isEmpty()) return fieldName;
+        if (fieldName == null || fieldName.isEmpty() || tableFieldCaseType == TableFieldCaseType.CAMEL_CASE) return fieldName;
+        return translate(TO_CAMEL_CASE_CACHE, tableFieldCaseType, fieldName, NamingUtils::translateToCamelCase);
+    }
 
+    private static String translateToCamelCase(TableFieldCaseType tableFieldCaseType, String fieldName) {
         switch (tableFieldCaseType) {
-            case CAMEL_CASE:
-                return fieldName;
             case PASCAL_CASE:
                 return StringUtils.uncapitalize(fieldName);
             case SNAKE_CASE:
             case SCREAMING_SNAKE_CASE:
+                if (isAscii(fieldName)) return asciiDelimitedToCamelCase(fieldName, '_', false);
                 String[] parts = fieldName.split("_");
                 StringBuilder result = new StringBuilder();
                 for (int i = 0; i < parts.length; i++) {
@@ -148,6 +191,7 @@ public class NamingUtils {
                 }
                 return result.toString();
             case KEBAB_CASE:
+                if (isAscii(fieldName)) return asciiDelimitedToCamelCase(fieldName, '-', true);
                 String[] kebabParts = fieldName.split("-");
                 StringBuilder kebabResult = new StringBuilder(kebabParts[0].toLowerCase());
                 for (int i = 1; i < kebabParts.length; i++) {
@@ -162,6 +206,43 @@ public class NamingUtils {
         }
     }
 
+    private static boolean isAscii(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (str.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Single pass conversion of an ASCII delimited name to camelCase, equivalent to splitting
+     * by the delimiter, lowercasing the first part and capitalizing the following parts.
+     *
+     * @param name the ASCII delimited name
+     * @param delimiter the delimiter character ('_' or '-')
+     * @param leadingPartCounts whether the part before a leading delimiter counts as the first
+     *                          part even if it is empty, e.g. "-user-id" -> "UserId"
+     * @return the converted name in camelCase
+     */
+    private static String asciiDelimitedToCamelCase(String name, char delimiter, boolean leadingPartCounts) {
+        char[] result = new char[name.length()];
+        int length = 0;
+        boolean partStart = false;
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (ch == delimiter) {
+                partStart = length > 0 || leadingPartCounts;
+                continue;
+            }
+            if (partStart) {
+                result[length++] = ch >= 'a' && ch <= 'z' ? (char) (ch - 0x20) : ch;
+                partStart = false;
+            } else {
+                result[length++] = ch >= 'A' && ch <= 'Z' ? (char) (ch + 0x20) : ch;
+            }
+        }
+        return new String(result, 0, length);
+    }
+
     /**
      * Converts a camelCase or PascalCase field name to PascalCase.
      *
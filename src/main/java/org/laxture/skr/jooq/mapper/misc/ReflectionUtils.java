@@ -19,11 +19,15 @@ import lombok.Getter;
 import lombok.NonNull;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.laxture.skr.jooq.mapper.annotation.LeftoverCollector;
 import org.laxture.skr.jooq.mapper.annotation.MappingInstantiator;
 import org.springframework.util.Assert;
 
 import java.io.*;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.*;
 import java.util.function.Predicate;
@@ -529,60 +533,244 @@ public final class ReflectionUtils {
     // Constructor Utils
     //*************************************************************************
 
+    private static final MethodType INSTANTIATOR_TYPE = MethodType.methodType(Object.class);
+
+    /**
+     * <code>sun.reflect.ReflectionFactory#newConstructorForSerialization(Class, Constructor)</code>
+     * bound to the factory, looked up reflectively to keep javac's internal API warning out of
+     * the build. Null if jdk.unsupported is not available.
+     */
+    private static final MethodHandle NEW_CONSTRUCTOR_FOR_SERIALIZATION = findNewConstructorForSerialization();
+
+    private static final ClassValue<Supplier<?>> INSTANTIATORS = new ClassValue<>() {
+        @Override
+        protected Supplier<?> computeValue(Class<?> type) {
+            return resolveInstantiator(type);
+        }
+    };
+
     /**
      * Createinstance operation.
      *
      * @param clazz the clazz
      * @return the result
      */
-    @SuppressWarnings("unchecked")
     public static <T> T createInstance(Class<T> clazz) {
+        return getInstantiator(clazz).get();
+    }
+
+    /**
+     * Get the instantiator of the class, which is resolved once per class in order of
+     * <ol>
+     *     <li>default implementation of Map, List and Set interfaces</li>
+     *     <li>{@link MappingInstantiator} annotated no-arg constructor</li>
+     *     <li>{@link MappingInstantiator} annotated no-arg static factory method</li>
+     *     <li>no-arg constructor</li>
+     *     <li>serialization constructor, which creates instance without running any
+     *     constructor of the class</li>
+     * </ol>
+     *
+     * @param clazz the clazz
+     * @return the instantiator, which throws {@link IllegalStateException} if no strategy applies
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Supplier<T> getInstantiator(Class<T> clazz) {
+        return (Supplier<T>) INSTANTIATORS.get(clazz);
+    }
+
+    private static Supplier<?> resolveInstantiator(Class<?> clazz) {
         // Handle common interface types with default implementations
-        if (Map.class.isAssignableFrom(clazz) && !Modifier.isAbstract(clazz.getModifiers())) {
-            // If it's a concrete Map implementation, try to instantiate it
-        } else if (Map.class.equals(clazz)) {
-            return (T) new LinkedHashMap<>();
-        } else if (List.class.equals(clazz)) {
-            return (T) new ArrayList<>();
-        } else if (Set.class.equals(clazz)) {
-            return (T) new LinkedHashSet<>();
-        }
+        if (Map.class.equals(clazz)) return LinkedHashMap::new;
+        if (List.class.equals(clazz)) return ArrayList::new;
+        if (Set.class.equals(clazz)) return LinkedHashSet::new;
 
-        Supplier<T> instructor = null;
+        if (clazz.isInterface() || clazz.isPrimitive() || clazz.isArray() || Modifier.isAbstract(clazz.getModifiers())) {
+            return noInstantiator(clazz);
+        }
 
+        Constructor<?> noArgConstructor = null;
         for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
             if (constructor.getParameterCount() != 0) continue;
-            instructor = () -> {
-                constructor.setAccessible(true);
-                try {
-                    return (T) constructor.newInstance();
-                } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-                    throw new IllegalStateException("Constructor " + constructor + " is not accessible");
-                }
-            };
             if (constructor.isAnnotationPresent(MappingInstantiator.class)) {
-                return instructor.get();
+                return instantiatorOf(constructor);
             }
+            noArgConstructor = constructor;
         }
 
         for (Method method : clazz.getDeclaredMethods()) {
             if (method.isAnnotationPresent(MappingInstantiator.class)
                 && Modifier.isStatic(method.getModifiers())
+                && method.getParameterCount() == 0
                 && clazz.isAssignableFrom(method.getReturnType())) {
-                method.setAccessible(true);
-                try {
-                    return (T) method.invoke(null);
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    throw new IllegalStateException("Builder " + method + " is not accessible");
-                }
+                return instantiatorOf(method);
+            }
+        }
+
+        if (noArgConstructor != null) {
+            return instantiatorOf(noArgConstructor);
+        }
+
+        Supplier<?> serializationInstantiator = serializationInstantiatorOf(clazz);
+        return serializationInstantiator != null ? serializationInstantiator : noInstantiator(clazz);
+    }
+
+    private static Supplier<?> instantiatorOf(Executable instantiator) {
+        MethodHandle handle;
+        try {
+            MethodHandles.Lookup lookup = privateLookupIn(instantiator.getDeclaringClass());
+            handle = instantiator instanceof Constructor<?> constructor
+                ? lookup.unreflectConstructor(constructor)
+                : lookup.unreflect((Method) instantiator);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return reflectiveInstantiatorOf(instantiator);
+        }
+        MethodHandle instantiatorHandle = handle.asType(INSTANTIATOR_TYPE);
+        return () -> {
+            try {
+                return instantiatorHandle.invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Instantiator " + instantiator + " failed", e);
+            }
+        };
+    }
+
+    private static Supplier<?> reflectiveInstantiatorOf(Executable instantiator) {
+        instantiator.setAccessible(true);
+        return () -> {
+            try {
+                return instantiator instanceof Constructor<?> constructor
+                    ? constructor.newInstance()
+                    : ((Method) instantiator).invoke(null);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                if (e.getCause() instanceof Error cause) throw cause;
+                throw new IllegalStateException("Instantiator " + instantiator + " failed", e.getCause());
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new IllegalStateException("Instantiator " + instantiator + " is not accessible", e);
+            }
+        };
+    }
+
+    private static Supplier<?> serializationInstantiatorOf(Class<?> clazz) {
+        if (NEW_CONSTRUCTOR_FOR_SERIALIZATION == null) return null;
+        try {
+            Constructor<?> constructor = (Constructor<?>) NEW_CONSTRUCTOR_FOR_SERIALIZATION
+                .invokeExact(clazz, Object.class.getDeclaredConstructor());
+            return constructor != null ? reflectiveInstantiatorOf(constructor) : null;
+        } catch (RuntimeException | LinkageError e) {
+            return null;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle findNewConstructorForSerialization() {
+        try {
+            Class<?> factoryClass = Class.forName("sun.reflect.ReflectionFactory");
+            Object factory = factoryClass.getMethod("getReflectionFactory").invoke(null);
+            return MethodHandles.publicLookup()
+                .findVirtual(factoryClass, "newConstructorForSerialization",
+                    MethodType.methodType(Constructor.class, Class.class, Constructor.class))
+                .bindTo(factory);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static Supplier<?> noInstantiator(Class<?> clazz) {
+        return () -> {
+            throw new IllegalStateException("No constructor found for " + clazz);
+        };
+    }
+
+    /**
+     * Find the constructor or static factory method that creates instances from mapped
+     * values, which is either
+     * <ul>
+     *     <li>a {@link MappingInstantiator} annotated one with parameters</li>
+     *     <li>the canonical constructor of a record</li>
+     *     <li>the only constructor of a class without no-arg constructor, e.g. Lombok <code>@Value</code></li>
+     * </ul>
+     *
+     * @param clazz the clazz
+     * @return the instantiator, or null if instances are created by {@link #createInstance(Class)}
+     */
+    public static Executable findArgumentsInstantiator(Class<?> clazz) {
+        if (clazz.isInterface() || clazz.isEnum() || clazz.isArray() || clazz.isPrimitive()
+            || Modifier.isAbstract(clazz.getModifiers())
+            || Map.class.isAssignableFrom(clazz) || Collection.class.isAssignableFrom(clazz)) return null;
+
+        Constructor<?>[] constructors = clazz.getDeclaredConstructors();
+        for (Constructor<?> constructor : constructors) {
+            if (constructor.isAnnotationPresent(MappingInstantiator.class)) {
+                return constructor.getParameterCount() > 0 ? constructor : null;
+            }
+        }
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(MappingInstantiator.class)
+                && Modifier.isStatic(method.getModifiers())
+                && clazz.isAssignableFrom(method.getReturnType())) {
+                return method.getParameterCount() > 0 ? method : null;
             }
         }
 
-        if (instructor != null) {
-            return instructor.get();
+        if (clazz.isRecord()) {
+            Class<?>[] componentTypes = Arrays.stream(clazz.getRecordComponents())
+                .map(RecordComponent::getType).toArray(Class<?>[]::new);
+            try {
+                return clazz.getDeclaredConstructor(componentTypes);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        if (constructors.length == 1 && constructors[0].getParameterCount() > 0
+            && !(clazz.isMemberClass() && !Modifier.isStatic(clazz.getModifiers()))) {
+            return constructors[0];
+        }
+        return null;
+    }
+
+    /**
+     * Resolve parameter names of an instantiator found by {@link #findArgumentsInstantiator(Class)},
+     * from record components, <code>@ConstructorProperties</code>, class files compiled with
+     * <code>-parameters</code>, or instance fields declared in the same order with the same types.
+     *
+     * @param instantiator the constructor or static factory method
+     * @param clazz the class being instantiated
+     * @return the parameter names, or null if they can't be resolved
+     */
+    public static String[] getParameterNames(Executable instantiator, Class<?> clazz) {
+        Parameter[] parameters = instantiator.getParameters();
+        if (clazz.isRecord() && instantiator instanceof Constructor) {
+            RecordComponent[] components = clazz.getRecordComponents();
+            if (components.length == parameters.length) {
+                return Arrays.stream(components).map(RecordComponent::getName).toArray(String[]::new);
+            }
+        }
+
+        java.beans.ConstructorProperties constructorProperties =
+            instantiator.getAnnotation(java.beans.ConstructorProperties.class);
+        if (constructorProperties != null && constructorProperties.value().length == parameters.length) {
+            return constructorProperties.value();
+        }
+
+        if (Arrays.stream(parameters).allMatch(Parameter::isNamePresent)) {
+            return Arrays.stream(parameters).map(Parameter::getName).toArray(String[]::new);
         }
 
-        throw new IllegalStateException("No constructor found for " + clazz);
+        Field[] fields = Arrays.stream(clazz.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+            .toArray(Field[]::new);
+        if (fields.length != parameters.length) return null;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].getType() != parameters[i].getType()) return null;
+        }
+        return Arrays.stream(fields).map(Field::getName).toArray(String[]::new);
     }
 
     //*************************************************************************
@@ -614,7 +802,26 @@ public final class ReflectionUtils {
     }
 
     public static <T> Accessor findAccessor(T instance, String fieldName) {
-        Class<?> clazz = instance.getClass();
+        return findAccessor(instance.getClass(), fieldName);
+    }
+
+    /**
+     * Find accessor of the property from the class's {@link PropertyTable}.
+     *
+     * @param clazz the clazz
+     * @param fieldName the property name
+     * @return the accessor, or null if no field, getter or setter matches
+     */
+    public static Accessor findAccessor(Class<?> clazz, String fieldName) {
+        PropertyTable propertyTable = getPropertyTable(clazz);
+        Accessor accessor = propertyTable.getAccessor(fieldName);
+        if (accessor != null) return accessor;
+        // getter/setter may still match a name differing by the case of the leading char
+        return propertyTable.getAccessor(StringUtils.uncapitalize(fieldName)) != null
+            ? resolveAccessor(clazz, fieldName) : null;
+    }
+
+    private static Accessor resolveAccessor(Class<?> clazz, String fieldName) {
         Field matchedField = null;
         try {
             matchedField = clazz.getDeclaredField(fieldName);
@@ -654,44 +861,235 @@ public final class ReflectionUtils {
     private static AccessorTuple findMatchModelAccessor(Object modelInstance, String fieldName,
                                                         List<NestedObjectStub> context,
                                                         boolean createNestedObject) {
-        Accessor accessor = findAccessor(modelInstance, fieldName);
+        AccessorPath path = findMatchModelAccessorPath(modelInstance.getClass(), fieldName);
+        if (path == null) return null;
+
+        // nested objects are created detached, and only set to their owners on settle()
+        Object owner = modelInstance;
+        for (Accessor nestedAccessor : path.nestedAccessors) {
+            Object nestedObject = nestedAccessor.getValue(owner);
+            if (nestedObject == null) {
+                if (!createNestedObject) return null;
+                nestedObject = createInstance(nestedAccessor.getType());
+                context.add(new NestedObjectStub(owner, nestedAccessor, nestedObject));
+            }
+            owner = nestedObject;
+        }
+        return new AccessorTuple(path.getAccessor(), owner, context);
+    }
+
+    /**
+     * Resolves the accessor path of a field name against the model class, without touching
+     * any model instance. Nested objects are matched by field name prefix, e.g.
+     * <code>addressCity</code> resolves to <code>address.city</code>.
+     *
+     * @param modelType the model class
+     * @param fieldName the fieldName
+     * @return the resolved path, or null if no accessor matches
+     */
+    public static AccessorPath findMatchModelAccessorPath(Class<?> modelType, String fieldName) {
+        return findMatchModelAccessorPath(modelType, fieldName, new ArrayList<>());
+    }
+
+    private static AccessorPath findMatchModelAccessorPath(Class<?> modelType, String fieldName,
+                                                           List<Accessor> nestedAccessors) {
+        PropertyTrie trie = getPropertyTable(modelType).trie;
+        PropertyTrie node = trie.walk(fieldName, 0, fieldName.length());
+        Accessor accessor = node != null ? node.resolve(modelType, fieldName, fieldName.length()) : null;
         if (accessor != null) {
-            return new AccessorTuple(accessor, modelInstance, context);
+            return new AccessorPath(nestedAccessors, accessor);
         }
 
+        // walk the trie along the name, trying nested objects at each camelCase part boundary
+        node = trie;
+        int position = 0;
+        for (int boundary : nestedPrefixBoundaries(fieldName)) {
+            node = node.walk(fieldName, position, boundary);
+            if (node == null) break;
+            position = boundary;
+
+            accessor = node.resolve(modelType, fieldName, boundary);
+            if (accessor != null && isNestable(accessor.getType())) {
+                nestedAccessors.add(accessor);
+                return findMatchModelAccessorPath(accessor.getType(),
+                    StringUtils.uncapitalize(fieldName.substring(boundary)), nestedAccessors);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * End positions of the camelCase parts of the name that may be a nested object prefix,
+     * e.g. [7, 11] for <code>addressLine1City</code>.
+     */
+    private static int[] nestedPrefixBoundaries(String fieldName) {
         String[] nameParts = StringUtils.splitByCharacterTypeCamelCase(fieldName);
-        int partIndex = 0;
-        StringBuilder possibleNestedField = new StringBuilder(nameParts[partIndex]);
-        while (!possibleNestedField.toString().equals(fieldName)) {
-            accessor = findAccessor(modelInstance, possibleNestedField.toString());
-            if (accessor != null && !isPrimitive(accessor.getType())
-                    && !Collection.class.isAssignableFrom(accessor.getType())
-                    && !Map.class.isAssignableFrom(accessor.getType())) {
-                Object nestedObject = accessor.getValue(modelInstance);
-                if (nestedObject == null) {
-                    Accessor finalAccessor = accessor;
-                    nestedObject = context.stream().filter(stub -> {
-                        return stub.owner == modelInstance && stub.accessor == finalAccessor;
-                    }).findAny().map(NestedObjectStub::nestedObject).orElse(null);
+        int[] boundaries = new int[Math.max(nameParts.length - 1, 0)];
+        int count = 0;
+        int end = 0;
+        for (int i = 0; i < nameParts.length - 1; i++) {
+            // a lowercase part can't start a capitalized nested property name
+            if (i > 0 && !nameParts[i].equals(capitalize(nameParts[i]))) break;
+            end += nameParts[i].length();
+            boundaries[count++] = end;
+        }
+        return count == boundaries.length ? boundaries : Arrays.copyOf(boundaries, count);
+    }
+
+    private static final ClassValue<PropertyTable> PROPERTY_TABLES = new ClassValue<>() {
+        @Override
+        protected PropertyTable computeValue(Class<?> type) {
+            return new PropertyTable(type);
+        }
+    };
+
+    /**
+     * Get property metadata of the class, which is resolved once per class. It's held by a
+     * {@link ClassValue}, so it doesn't prevent the class from being unloaded.
+     *
+     * @param clazz the clazz
+     * @return the property table
+     */
+    public static PropertyTable getPropertyTable(Class<?> clazz) {
+        return PROPERTY_TABLES.get(clazz);
+    }
+
+    /**
+     * Properties of a class, named by fields, getters and setters, with their accessors.
+     */
+    public static final class PropertyTable {
+        private final Map<String, Accessor> accessors;
+        private final Accessor leftoverCollector;
+        private final PropertyTrie trie;
+
+        private PropertyTable(Class<?> clazz) {
+            Set<String> names = new LinkedHashSet<>();
+            for (Field field : getAllFields(clazz)) {
+                names.add(field.getName());
+            }
+            Stream.concat(Arrays.stream(clazz.getDeclaredMethods()), Arrays.stream(clazz.getMethods()))
+                .map(Method::getName)
+                .filter(name -> name.length() > 3 && (name.startsWith("get") || name.startsWith("set")))
+                .forEach(name -> names.add(StringUtils.uncapitalize(name.substring(3))));
+
+            Map<String, Accessor> accessors = new LinkedHashMap<>();
+            for (String name : names) {
+                Accessor accessor = resolveAccessor(clazz, name);
+                if (accessor != null) accessors.put(name, accessor);
+            }
+            this.accessors = Collections.unmodifiableMap(accessors);
+
+            Field leftoverField = findFieldAnnotatedWith(clazz, LeftoverCollector.class);
+            this.leftoverCollector = leftoverField != null && Map.class.isAssignableFrom(leftoverField.getType())
+                ? resolveAccessor(leftoverField.getDeclaringClass(), leftoverField.getName()) : null;
+            this.trie = PropertyTrie.build(this.accessors);
+        }
+
+        /**
+         * @return accessors by property name
+         */
+        public Map<String, Accessor> getAccessors() {
+            return accessors;
+        }
+
+        public Accessor getAccessor(String name) {
+            return accessors.get(name);
+        }
+
+        /**
+         * @return accessor of the Map field annotated with {@link LeftoverCollector}, null if absent
+         */
+        public Accessor getLeftoverCollector() {
+            return leftoverCollector;
+        }
+    }
+
+    /**
+     * Char trie of the property names of a class, keyed by the capitalized name so that a
+     * property matches either as the leading or a following camelCase part. Nested classes
+     * have their own trie in their property table, which is built when a path first walks
+     * into them.
+     */
+    private static final class PropertyTrie {
+        private char[] keys = new char[0];
+        private PropertyTrie[] children = new PropertyTrie[0];
+        /** property name ending at this node, null if none */
+        private String name;
+        private Accessor accessor;
+
+        private static PropertyTrie build(Map<String, Accessor> accessors) {
+            PropertyTrie root = new PropertyTrie();
+            for (Map.Entry<String, Accessor> entry : accessors.entrySet()) {
+                String name = entry.getKey();
+                PropertyTrie node = root;
+                for (int i = 0; i < name.length(); i++) {
+                    node = node.childOrCreate(keyAt(name, i));
                 }
-                if (nestedObject == null) {
-                    // If nested object is null and we shouldn't create it, return null
-                    if (!createNestedObject) {
-                        return null;
-                    }
-                    nestedObject = createInstance(accessor.getType());
-                    Object finalNestedObject = nestedObject;
-                    context.add(new NestedObjectStub(modelInstance, accessor, finalNestedObject));
+                if (node.name == null) {
+                    node.name = name;
+                    node.accessor = entry.getValue();
                 }
+            }
+            return root;
+        }
 
-                return findMatchModelAccessor(nestedObject,
-                    StringUtils.uncapitalize(fieldName.replaceFirst(
-                        "^" + possibleNestedField, "")), context, createNestedObject);
+        private static char keyAt(String name, int index) {
+            char ch = name.charAt(index);
+            return index == 0 ? Character.toTitleCase(ch) : ch;
+        }
+
+        private PropertyTrie child(char key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) return children[i];
             }
-            possibleNestedField.append(capitalize(nameParts[++partIndex]));
+            return null;
         }
 
-        return null;
+        private PropertyTrie childOrCreate(char key) {
+            PropertyTrie child = child(key);
+            if (child != null) return child;
+            child = new PropertyTrie();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = key;
+            children[children.length - 1] = child;
+            return child;
+        }
+
+        private PropertyTrie walk(String fieldName, int from, int to) {
+            PropertyTrie node = this;
+            for (int i = from; i < to && node != null; i++) {
+                node = node.child(keyAt(fieldName, i));
+            }
+            return node;
+        }
+
+        /**
+         * Resolve accessor of the property named by the first <code>length</code> chars of
+         * the field name, where this node is reached by those chars.
+         */
+        private Accessor resolve(Class<?> clazz, String fieldName, int length) {
+            if (name == null) return null;
+            if (name.length() == length && name.regionMatches(0, fieldName, 0, length)) return accessor;
+            // only differs by the case of the leading char, fall back to the getter/setter lookup
+            return findAccessor(clazz, fieldName.substring(0, length));
+        }
+    }
+
+    /**
+     * Whether the type is a model that properties can be nested in, i.e. not a primitive,
+     * array, JDK class, collection or map.
+     *
+     * @param type the type
+     * @return the result
+     */
+    public static boolean isNestable(Class<?> type) {
+        return type != null && !isPrimitive(type)
+            && !type.isArray()
+            && !type.getName().startsWith("java.")
+            && !Collection.class.isAssignableFrom(type)
+            && !Map.class.isAssignableFrom(type);
     }
 
     private record NestedObjectStub(
@@ -701,6 +1099,9 @@ public final class ReflectionUtils {
     ) {}
 
     public static class Accessor {
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
         @Getter
         private final Method getter;
         @Getter
@@ -708,10 +1109,25 @@ public final class ReflectionUtils {
         @Getter
         private final Field field;
 
+        // resolved once, null if the member could not be unreflected, e.g. static or final
+        private final MethodHandle getterHandle;
+        private final MethodHandle setterHandle;
+        private final boolean transientField;
+        private final boolean leftoverCollector;
+
         private Accessor(Method getter, Method setter, Field field) {
             this.getter = getter;
             this.setter = setter;
             this.field = field;
+            MethodHandle readHandle = getter != null ? unreflect(getter, GETTER_TYPE) : null;
+            if (readHandle == null && getter == null && field != null) readHandle = unreflectGetter(field);
+            MethodHandle writeHandle = setter != null ? unreflect(setter, SETTER_TYPE) : null;
+            if (writeHandle == null && setter == null && field != null) writeHandle = unreflectSetter(field);
+            this.getterHandle = readHandle;
+            this.setterHandle = writeHandle;
+            this.transientField = field != null ? isTransient(field, field.getModifiers())
+                : getter != null && isTransient(getter, getter.getModifiers());
+            this.leftoverCollector = field != null && field.isAnnotationPresent(LeftoverCollector.class);
         }
 
         public Class<?> getType() {
@@ -729,15 +1145,42 @@ public final class ReflectionUtils {
             return "unknown";
         }
 
+        @SuppressWarnings("unchecked")
         public <T> T getValue(Object instance) {
+            if (getterHandle != null) {
+                try {
+                    return (T) getterHandle.invokeExact(instance);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new RuntimeException("Get field " + getName() + " failed.", e);
+                }
+            }
             if (getter != null) return callMethod(instance, getter);
-            T value = getFieldValue(instance, field);
-            return value;
+            return getFieldValue(instance, field);
         }
 
         public <T> void setValue(Object instance, T value) {
+            if (setterHandle != null) {
+                try {
+                    setterHandle.invokeExact(instance, (Object) value);
+                    return;
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new RuntimeException("Set field " + getName() + " failed.", e);
+                }
+            }
             if (setter != null) callMethod(instance, setter, value);
-            else setFieldValue(instance, field, value);
+            else if (field != null) setFieldValue(instance, field, value);
+            else throw new IllegalStateException("Field " + getName() + " is read-only.");
+        }
+
+        /**
+         * @return whether the property can be written by a setter or a non-final field
+         */
+        public boolean isWritable() {
+            return setter != null || (field != null && !Modifier.isFinal(field.getModifiers()));
         }
 
         @Override
@@ -751,24 +1194,63 @@ public final class ReflectionUtils {
         }
 
         public boolean isTransientField() {
-            if (field != null) {
-                return field.isAnnotationPresent(org.laxture.skr.jooq.mapper.annotation.Transient.class)
-                    || field.isAnnotationPresent(org.springframework.data.annotation.Transient.class)
-                    || field.isAnnotationPresent(java.beans.Transient.class)
-                    || (field.getModifiers() & Modifier.TRANSIENT) != 0;
-            }
+            return transientField;
+        }
 
-            if (getter != null) {
-                return getter.isAnnotationPresent(org.laxture.skr.jooq.mapper.annotation.Transient.class)
-                    || getter.isAnnotationPresent(org.springframework.data.annotation.Transient.class)
-                    || getter.isAnnotationPresent(java.beans.Transient.class)
-                    || (getter.getModifiers() & Modifier.TRANSIENT) != 0;
-            }
+        /**
+         * @return whether the property is the field annotated with {@link LeftoverCollector}
+         */
+        public boolean isLeftoverCollector() {
+            return leftoverCollector;
+        }
 
-            return false;
+        private static boolean isTransient(AnnotatedElement member, int modifiers) {
+            return member.isAnnotationPresent(org.laxture.skr.jooq.mapper.annotation.Transient.class)
+                || member.isAnnotationPresent(org.springframework.data.annotation.Transient.class)
+                || member.isAnnotationPresent(java.beans.Transient.class)
+                || (modifiers & Modifier.TRANSIENT) != 0;
         }
     }
 
+    /**
+     * Unreflect method to a {@link MethodHandle} of given type. Private members are accessed
+     * through {@link MethodHandles#privateLookupIn}, no {@link AccessibleObject#setAccessible}
+     * is needed.
+     *
+     * @return the handle, or null if the method is not accessible or not adaptable to the type
+     */
+    private static MethodHandle unreflect(Method method, MethodType type) {
+        try {
+            return privateLookupIn(method.getDeclaringClass()).unreflect(method).asType(type);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle unreflectGetter(Field field) {
+        if (Modifier.isStatic(field.getModifiers())) return null;
+        try {
+            return privateLookupIn(field.getDeclaringClass()).unreflectGetter(field)
+                .asType(Accessor.GETTER_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle unreflectSetter(Field field) {
+        if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) return null;
+        try {
+            return privateLookupIn(field.getDeclaringClass()).unreflectSetter(field)
+                .asType(Accessor.SETTER_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandles.Lookup privateLookupIn(Class<?> clazz) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+    }
+
     public static class AccessorTuple {
         @Getter
         private final Accessor accessor;
@@ -808,6 +1290,62 @@ public final class ReflectionUtils {
         }
     }
 
+    /**
+     * Accessor of a (possibly nested) model property, resolved from the model class.
+     * Nested objects along the path are read from the root instance on each access.
+     */
+    public static class AccessorPath {
+        @Getter
+        private final Accessor accessor;
+        private final Accessor[] nestedAccessors;
+
+        private AccessorPath(@NonNull List<Accessor> nestedAccessors, @NonNull Accessor accessor) {
+            this.nestedAccessors = nestedAccessors.toArray(new Accessor[0]);
+            this.accessor = accessor;
+        }
+
+        public boolean isNested() {
+            return nestedAccessors.length > 0;
+        }
+
+        /**
+         * @return accessors of the nested objects from the root instance down to the owner
+         */
+        public Accessor[] getNestedAccessors() {
+            return nestedAccessors.clone();
+        }
+
+        /**
+         * Find the direct owner of the property from the root instance.
+         *
+         * @param root the root model instance
+         * @param createNestedObject whether to create nested object if null
+         * @return the owner, or null if a nested object is null and not created
+         */
+        public Object getOwner(@NonNull Object root, boolean createNestedObject) {
+            Object owner = root;
+            for (Accessor nestedAccessor : nestedAccessors) {
+                Object nestedObject = nestedAccessor.getValue(owner);
+                if (nestedObject == null) {
+                    if (!createNestedObject) return null;
+                    nestedObject = createInstance(nestedAccessor.getType());
+                    nestedAccessor.setValue(owner, nestedObject);
+                }
+                owner = nestedObject;
+            }
+            return owner;
+        }
+
+        public <T> T getValue(@NonNull Object root) {
+            Object owner = getOwner(root, false);
+            return owner == null ? null : accessor.getValue(owner);
+        }
+
+        public <T> void setValue(@NonNull Object root, T value) {
+            accessor.setValue(getOwner(root, true), value);
+        }
+    }
+
     /**
      * Gets the fieldvalue.
      *
@@ -7,11 +7,19 @@ import org.jooq.JSON;
 import org.junit.jupiter.api.Test;
 import org.laxture.skr.jooq.mapper.converter.ArrayConverter;
 import org.laxture.skr.jooq.mapper.converter.ConverterRegistry;
+import org.laxture.skr.jooq.mapper.converter.PrimitiveTypeConverter;
 import org.laxture.skr.jooq.mapper.converter.SkrJooqConverter;
+import org.laxture.skr.jooq.mapper.converter.json.JacksonJsonCodec;
 import org.laxture.skr.jooq.mapper.converter.json.JsonArrayConverter;
+import org.laxture.skr.jooq.mapper.converter.json.JsonCodec;
 import org.laxture.skr.jooq.mapper.converter.json.JsonObjectConverter;
+import org.laxture.skr.jooq.mapper.converter.json.JsonPrimitiveArrayConverter;
 import org.laxture.skr.jooq.mapper.converter.json.JsonbArrayConverter;
 import org.laxture.skr.jooq.mapper.converter.json.JsonbObjectConverter;
+import org.laxture.skr.jooq.mapper.converter.json.LazyJson;
+import org.laxture.skr.jooq.mapper.converter.json.LazyJsonConverter;
+import org.laxture.skr.jooq.mapper.converter.json.LazyJsonbConverter;
+import org.laxture.skr.jooq.mapper.misc.MapperConversionException;
 import org.laxture.skr.jooq.mapper.misc.ObjectMapperConfigurer;
 import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
 import org.laxture.skr.jooq.test.model.User;
@@ -21,9 +29,11 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ConverterTest {
 
@@ -34,6 +44,9 @@ class ConverterTest {
     public User[] userArray;
     public List<Long> friendIds;
     public List<String> friendNames;
+    public Set<Integer> friendAges;
+    public List<Map<String, User>> userMaps;
+    public LazyJson<User> lazyUser;
 
     @Test
     public void testJsonObjectConverter() {
@@ -61,6 +74,156 @@ class ConverterTest {
         assertThat(converter_.match(userListType, org.jooq.JSONB.class), is(12));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testJsonGenericType() {
+        Type userMapsType = ReflectionUtils.findField(ConverterTest.class, "userMaps").getGenericType();
+
+        var converter = new JsonArrayConverter(new ObjectMapper());
+        List<Map<String, User>> userMaps = (List<Map<String, User>>) converter.convertToModelType(
+            JSON.json("[{\"a\":{\"id\":1}}]"), userMapsType);
+        assertThat(userMaps, hasSize(1));
+        assertThat(userMaps.get(0).get("a"), instanceOf(User.class));
+        assertThat(userMaps.get(0).get("a").getId(), is(1L));
+
+        // JSON null literal
+        assertThat(converter.convertToModelType(JSON.json(" null\n"), userMapsType), nullValue());
+        assertThat(new JsonObjectConverter(new ObjectMapper()).convertToModelType(JSON.json("null"), User.class), nullValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testJsonStreamingArray() {
+        Type friendIdsType = ReflectionUtils.findField(ConverterTest.class, "friendIds").getGenericType();
+        List<Long> friendIds = (List<Long>) new JsonArrayConverter(new ObjectMapper())
+            .convertToModelType(JSON.json("[1, 2, null, 3]"), friendIdsType);
+        assertThat(friendIds, contains(1L, 2L, null, 3L));
+
+        var converter = new JsonPrimitiveArrayConverter(new ObjectMapper());
+        assertThat(converter.match(long[].class, JSON.class), is(12));
+        assertThat(converter.match(double[].class, org.jooq.JSONB.class), is(12));
+        assertThat(converter.match(String[].class, JSON.class), is(SkrJooqConverter.MISMATCH));
+
+        long[] longs = (long[]) converter.convertToModelType(JSON.json("[1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17]"), long[].class);
+        assertThat(longs.length, is(17));
+        assertThat(longs[16], is(17L));
+        double[] doubles = (double[]) converter.convertToModelType(org.jooq.JSONB.jsonb("[1.5, 2]"), double[].class);
+        assertThat(doubles[0], is(1.5d));
+        assertThat(doubles[1], is(2d));
+        assertThat(converter.convertToModelType(JSON.json("null"), int[].class), nullValue());
+        assertThat(converter.convertToJooqType(new int[]{1, 2}, JSON.class), is((Object) JSON.json("[1,2]")));
+    }
+
+    @Test
+    public void testLazyJsonConverter() {
+        Type lazyUserType = ReflectionUtils.findField(ConverterTest.class, "lazyUser").getGenericType();
+        var converter = new LazyJsonConverter(new ObjectMapper());
+        assertThat(converter.match(lazyUserType, JSON.class), is(13));
+        assertThat(new LazyJsonbConverter(new ObjectMapper()).match(lazyUserType, org.jooq.JSONB.class), is(13));
+
+        // untouched value is written back as is
+        LazyJson<User> lazyUser = (LazyJson<User>) converter.convertToModelType(JSON.json("{\"id\": 1}"), lazyUserType);
+        assertThat(lazyUser.isResolved(), is(false));
+        assertThat(converter.convertToJooqType(lazyUser, JSON.class), is(JSON.json("{\"id\": 1}")));
+
+        // deserialized on first access
+        assertThat(lazyUser.get().id, is(1L));
+        assertThat(lazyUser.isResolved(), is(true));
+        assertThat(lazyUser.get(), sameInstance(lazyUser.get()));
+
+        // resolved value is serialized again
+        lazyUser.get().id = 2L;
+        assertThat(converter.convertToJooqType(lazyUser, JSON.class).data(), containsString("\"id\":2"));
+
+        assertThat(converter.convertToModelType(JSON.json("null"), lazyUserType), nullValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testJsonCodec() {
+        JacksonJsonCodec jacksonCodec = new JacksonJsonCodec(new ObjectMapper());
+        java.util.concurrent.atomic.AtomicInteger reads = new java.util.concurrent.atomic.AtomicInteger();
+        // codec only implementing read/write, lists and arrays fall back to binding as a whole
+        JsonCodec countingCodec = new JsonCodec() {
+            @Override
+            public <T> T read(String json, Type modelType) throws java.io.IOException {
+                reads.incrementAndGet();
+                return jacksonCodec.read(json, modelType);
+            }
+
+            @Override
+            public String write(Object value) throws java.io.IOException {
+                return jacksonCodec.write(value);
+            }
+        };
+
+        User user = (User) new JsonObjectConverter(countingCodec).convertToModelType(JSON.json("{\"id\":1}"), User.class);
+        assertThat(user.getId(), is(1L));
+        Type userListType = ReflectionUtils.findField(ConverterTest.class, "users").getGenericType();
+        List<User> users = (List<User>) new JsonbArrayConverter(countingCodec)
+            .convertToModelType(org.jooq.JSONB.jsonb("[{\"id\":2}]"), userListType);
+        assertThat(users.get(0).getId(), is(2L));
+        long[] longs = (long[]) new JsonPrimitiveArrayConverter(countingCodec)
+            .convertToModelType(JSON.json("[1,2]"), long[].class);
+        assertThat(longs, is(new long[] {1, 2}));
+        assertThat(reads.get(), is(3));
+
+        LazyJson<User> lazyUser = (LazyJson<User>) new LazyJsonConverter(countingCodec).convertToModelType(JSON.json("{\"id\":3}"),
+            ReflectionUtils.findField(ConverterTest.class, "lazyUser").getGenericType());
+        assertThat(reads.get(), is(3));
+        assertThat(lazyUser.get().getId(), is(3L));
+        assertThat(reads.get(), is(4));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testArrayConverterFastPaths() {
+        Type friendIdsType = ReflectionUtils.findField(ConverterTest.class, "friendIds").getGenericType();
+        Type friendAgesType = ReflectionUtils.findField(ConverterTest.class, "friendAges").getGenericType();
+        var converter = new ArrayConverter();
+
+        // same component type is copied, not shared between model and record
+        long[] longs = {1, 2, 3};
+        long[] copiedLongs = (long[]) converter.convertToModelType(longs, long[].class);
+        assertThat(copiedLongs, is(longs));
+        assertThat(copiedLongs, not(sameInstance(longs)));
+        Long[] boxedLongs = {1L, 2L};
+        Long[] copiedBoxedLongs = (Long[]) converter.convertToJooqType(boxedLongs, Long[].class);
+        assertThat(copiedBoxedLongs, is(boxedLongs));
+        assertThat(copiedBoxedLongs, not(sameInstance(boxedLongs)));
+
+        // primitive arrays, both directions
+        assertThat(converter.convertToModelType(new Long[]{1L, 2L}, long[].class), is((Object) new long[]{1, 2}));
+        assertThat(converter.convertToJooqType(new long[]{1, 2}, Long[].class), is((Object) new Long[]{1L, 2L}));
+        assertThat(converter.convertToModelType(new Integer[]{1, 2}, int[].class), is((Object) new int[]{1, 2}));
+        assertThat(converter.convertToJooqType(new int[]{1, 2}, Integer[].class), is((Object) new Integer[]{1, 2}));
+        assertThat(converter.convertToModelType(new Double[]{1.5, 2d}, double[].class), is((Object) new double[]{1.5, 2}));
+        assertThat(converter.convertToJooqType(new double[]{1.5, 2}, Double[].class), is((Object) new Double[]{1.5, 2d}));
+        assertThat(converter.convertToModelType(new Boolean[]{true, false}, boolean[].class), is((Object) new boolean[]{true, false}));
+        assertThat(converter.convertToJooqType(new boolean[]{true, false}, Boolean[].class), is((Object) new Boolean[]{true, false}));
+
+        // int[] widened to long[] and double[]
+        assertThat(converter.convertToModelType(new int[]{1, 2}, long[].class), is((Object) new long[]{1, 2}));
+        assertThat(converter.convertToModelType(new int[]{1, 2}, double[].class), is((Object) new double[]{1, 2}));
+
+        // null elements become 0 in primitive arrays
+        assertThat(converter.convertToModelType(new Long[]{1L, null}, long[].class), is((Object) new long[]{1, 0}));
+        assertThat(converter.convertToModelType(new Integer[]{null, 2}, int[].class), is((Object) new int[]{0, 2}));
+        assertThat(converter.convertToModelType(new Boolean[]{null, true}, boolean[].class), is((Object) new boolean[]{false, true}));
+
+        // List<Long> and Set<Integer> from primitive and boxed arrays
+        assertThat((List<Long>) converter.convertToModelType(new long[]{1, 2}, friendIdsType), contains(1L, 2L));
+        assertThat((List<Long>) converter.convertToModelType(new Long[]{1L, null}, friendIdsType), contains(1L, null));
+        assertThat((List<Long>) converter.convertToModelType(new int[]{1, 2}, friendIdsType), contains(1L, 2L));
+        assertThat((Set<Integer>) converter.convertToModelType(new int[]{1, 2, 2}, friendAgesType), containsInAnyOrder(1, 2));
+        assertThat((Set<Integer>) converter.convertToModelType(new Integer[]{3, 4}, friendAgesType), containsInAnyOrder(3, 4));
+        assertThat((Set<Integer>) converter.convertToModelType(new long[]{5, 6}, friendAgesType), containsInAnyOrder(5, 6));
+
+        // collections to primitive arrays
+        assertThat(converter.convertToJooqType(List.of(1L, 2L), long[].class), is((Object) new long[]{1, 2}));
+        assertThat(converter.convertToJooqType(Set.of(7), int[].class), is((Object) new int[]{7}));
+    }
+
     @Test
     public void testArrayConverter() {
         Type userIdsType = ReflectionUtils.findField(ConverterTest.class, "userIds").getGenericType();
@@ -287,7 +450,7 @@ class ConverterTest {
         SkrJooqConverter<?, ?> converter1 = registry.matchConverter(String.class, String.class);
         assertThat(converter1, notNullValue());
 
-        Map cache = ReflectionUtils.getFieldValue(registry, "converterCache");
+        Map cache = ReflectionUtils.getFieldValue(registry, "snapshot.converterCache");
         assertThat(cache.size(), is(1));
     }
 
@@ -302,7 +465,7 @@ class ConverterTest {
         // 第一次调用建立缓存
         SkrJooqConverter<?, ?> originalConverter = registry.matchConverter(String.class, String.class);
         assertThat(originalConverter, notNullValue());
-        Map cache = ReflectionUtils.getFieldValue(registry, "converterCache");
+        Map cache = ReflectionUtils.getFieldValue(registry, "snapshot.converterCache");
         assertThat(cache.size(), is(1));
 
         // 注册一个高优先级的自定义 converter
@@ -333,12 +496,12 @@ class ConverterTest {
         assertThat(newConverter, notNullValue());
         assertThat(newConverter, sameInstance(customConverter));
         assertThat(newConverter, not(sameInstance(originalConverter)));
-        cache = ReflectionUtils.getFieldValue(registry, "converterCache");
+        cache = ReflectionUtils.getFieldValue(registry, "snapshot.converterCache");
         assertThat(cache.size(), is(1));
 
         // 注销自定义 converter
         registry.unregisterConverter("test-key");
-        cache = ReflectionUtils.getFieldValue(registry, "converterCache");
+        cache = ReflectionUtils.getFieldValue(registry, "snapshot.converterCache");
         assertThat(cache.size(), is(0));
         // 缓存应该被清除，返回原始的内置 converter
         SkrJooqConverter<?, ?> converter2 = registry.matchConverter(String.class, String.class);
@@ -357,7 +520,7 @@ class ConverterTest {
         // 第一次调用建立缓存
         SkrJooqConverter<?, ?> converter1 = registry.matchConverter(String.class, String.class);
         assertThat(converter1, notNullValue());
-        Map cache = ReflectionUtils.getFieldValue(registry, "converterCache");
+        Map cache = ReflectionUtils.getFieldValue(registry, "snapshot.converterCache");
         assertThat(cache.size(), is(1));
 
         // 验证缓存命中
@@ -366,7 +529,158 @@ class ConverterTest {
 
         // 显式清除缓存
         registry.clearCache();
-        cache = ReflectionUtils.getFieldValue(registry, "converterCache");
+        cache = ReflectionUtils.getFieldValue(registry, "snapshot.converterCache");
         assertThat(cache.size(), is(0));
     }
+
+    /**
+     * 测试未匹配次数按类型对统计
+     */
+    @Test
+    public void testConverterMissCount() {
+        ConverterRegistry registry = new ConverterRegistry();
+
+        registry.reportConverterMiss(User.class, Thread.class);
+        registry.reportConverterMiss(User.class, Thread.class);
+        Map<ConverterRegistry.ConverterMiss, Long> misses = registry.getConverterMisses();
+        assertThat(misses.get(new ConverterRegistry.ConverterMiss(User.class, Thread.class)), is(2L));
+
+        registry.resetConverterMisses();
+        assertThat(registry.getConverterMisses().size(), is(0));
+
+        // distinct type pairs are capped
+        for (int i = 0; i < 2000; i++) {
+            registry.reportConverterMiss(User.class, new Type() {});
+        }
+        assertThat(registry.getConverterMisses().size(), is(1024));
+    }
+
+    /**
+     * 测试未匹配结果缓存
+     */
+    @Test
+    public void testConverterMissCache() {
+        ConverterRegistry registry = new ConverterRegistry();
+        // the built-in DirectConverter matches everything, leave only a converter that never matches
+        registry.unregisterConverter(ConverterRegistry.BUILT_IN_REGISTRY_KEY);
+        java.util.concurrent.atomic.AtomicInteger matchCount = new java.util.concurrent.atomic.AtomicInteger();
+        registry.registerConverter(new SkrJooqConverter<Object, Object>() {
+            @Override
+            public int match(Type modelType, Type jooqType) {
+                matchCount.incrementAndGet();
+                return MISMATCH;
+            }
+
+            @Override
+            public Object convertToJooqType(Object mVal, Class<?> jooqType) {
+                return mVal;
+            }
+
+            @Override
+            public Object convertToModelType(Object jVal, Type modelType) {
+                return jVal;
+            }
+        }, "test");
+
+        assertThat(registry.matchConverter(User.class, Thread.class), nullValue());
+        assertThat(matchCount.get(), is(1));
+        // answered by the cached miss without scanning converters again
+        assertThat(registry.matchConverter(User.class, Thread.class), nullValue());
+        assertThat(registry.matchConverter(User.class, Thread.class), nullValue());
+        assertThat(matchCount.get(), is(1));
+
+        // a new generation starts over with an empty cache
+        registry.clearCache();
+        assertThat(registry.matchConverter(User.class, Thread.class), nullValue());
+        assertThat(matchCount.get(), is(2));
+    }
+
+    /**
+     * 测试注册、注销转换器及清除缓存都会推进 generation，使预绑定的转换器失效
+     */
+    @Test
+    public void testConverterRegistryGeneration() {
+        ConverterRegistry registry = new ConverterRegistry();
+        long generation = registry.getGeneration();
+
+        registry.registerConverter(new ArrayConverter(), "test");
+        assertThat(registry.getGeneration(), greaterThan(generation));
+        generation = registry.getGeneration();
+
+        registry.unregisterConverter("test");
+        assertThat(registry.getGeneration(), greaterThan(generation));
+        generation = registry.getGeneration();
+
+        registry.clearCache();
+        assertThat(registry.getGeneration(), greaterThan(generation));
+    }
+
+    /**
+     * 测试数值转换的截断、溢出及字符串、布尔转换语义
+     */
+    @Test
+    public void testPrimitiveConversions() {
+        PrimitiveTypeConverter converter = new PrimitiveTypeConverter();
+
+        // widening and narrowing within range
+        assertThat(toModel(converter, 42L, int.class), is(42));
+        assertThat(toModel(converter, 42, Long.class), is(42L));
+        assertThat(toModel(converter, (short) 7, byte.class), is((byte) 7));
+        assertThat(toModel(converter, 1.5f, double.class), is(1.5d));
+
+        // fractions are truncated toward zero
+        assertThat(toModel(converter, 9.99d, int.class), is(9));
+        assertThat(toModel(converter, -9.99d, long.class), is(-9L));
+        assertThat(toModel(converter, new BigDecimal("123.9"), Integer.class), is(123));
+        assertThat(toModel(converter, new BigDecimal("-1.5"), BigInteger.class), is(BigInteger.ONE.negate()));
+
+        // overflow throws instead of wrapping around
+        assertThrows(MapperConversionException.class, () -> converter.convertToModelType(Long.MAX_VALUE, int.class));
+        assertThrows(MapperConversionException.class, () -> converter.convertToModelType(128, byte.class));
+        assertThrows(MapperConversionException.class, () -> converter.convertToModelType(1e20d, long.class));
+        assertThrows(MapperConversionException.class, () -> converter.convertToModelType(Double.NaN, int.class));
+        assertThrows(MapperConversionException.class, () -> converter.convertToModelType(1e300d, float.class));
+        assertThrows(MapperConversionException.class,
+            () -> converter.convertToModelType(new BigInteger("99999999999999999999"), long.class));
+
+        // decimals
+        assertThat(toModel(converter, 0.1f, BigDecimal.class), is(new BigDecimal("0.1")));
+        assertThat(toModel(converter, 0.1d, BigDecimal.class), is(new BigDecimal("0.1")));
+        assertThat(toModel(converter, new BigInteger("12345"), BigDecimal.class), is(new BigDecimal("12345")));
+
+        // strings
+        assertThat(toModel(converter, " 123 ", int.class), is(123));
+        assertThat(toModel(converter, "1.0E2", long.class), is(100L));
+        assertThat(toModel(converter, "2.5", double.class), is(2.5d));
+        assertThat(converter.convertToJooqType(123L, String.class), is((Object) "123"));
+        assertThrows(MapperConversionException.class, () -> converter.convertToModelType("abc", int.class));
+
+        // booleans
+        assertThat(toModel(converter, 1, boolean.class), is(true));
+        assertThat(toModel(converter, 0L, Boolean.class), is(false));
+        assertThat(toModel(converter, true, int.class), is(1));
+        assertThat(toModel(converter, "yes", boolean.class), is(true));
+        assertThrows(MapperConversionException.class, () -> converter.convertToModelType(2, boolean.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T toModel(SkrJooqConverter<Object, Object> converter, Object value, Type modelType) {
+        return (T) converter.convertToModelType(value, modelType);
+    }
+
+    private abstract static class ToStringConverter<M> implements SkrJooqConverter<M, String> {
+
+        @Override
+        public String convertToJooqType(@NonNull M mVal, Class<?> jooqType) {
+            return mVal.toString();
+        }
+    }
+
+    private static class LongToStringConverter extends ToStringConverter<Long> {
+
+        @Override
+        public Long convertToModelType(@NonNull String jVal, Type modelType) {
+            return Long.valueOf(jVal);
+        }
+    }
 }
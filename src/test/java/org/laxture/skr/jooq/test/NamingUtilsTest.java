@@ -7,6 +7,7 @@ import org.laxture.skr.jooq.mapper.misc.NamingUtils;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 
 class NamingUtilsTest {
 
@@ -245,4 +246,18 @@ class NamingUtilsTest {
         backToCamel = NamingUtils.convertToCamelCase(TableFieldCaseType.PASCAL_CASE, pascalCase);
         assertThat(backToCamel, equalTo(original));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCachedTranslation() {
+        String camelCase = NamingUtils.convertToCamelCase(TableFieldCaseType.SNAKE_CASE, "address_line1");
+        assertThat(camelCase, equalTo("addressLine1"));
+        assertThat(NamingUtils.convertToCamelCase(TableFieldCaseType.SNAKE_CASE, "address_line1"), sameInstance(camelCase));
+
+        String snakeCase = NamingUtils.convertFromCamelCase(TableFieldCaseType.SNAKE_CASE, "addressLine1");
+        assertThat(snakeCase, equalTo("address_line1"));
+        assertThat(NamingUtils.convertFromCamelCase(TableFieldCaseType.SNAKE_CASE, "addressLine1"), sameInstance(snakeCase));
+
+        // non-ASCII names fall back to the regular conversion
+        assertThat(NamingUtils.convertToCamelCase(TableFieldCaseType.SNAKE_CASE, "ÜBER_NAME"), equalTo("überName"));
+    }
+}
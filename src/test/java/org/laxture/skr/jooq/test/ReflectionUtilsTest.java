@@ -9,6 +9,7 @@ import org.laxture.skr.jooq.test.model.UserProfile;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -72,6 +73,14 @@ class ReflectionUtilsTest {
 
     }
 
+    public static class E {
+        final String name;
+
+        public E(String name) {
+            this.name = name;
+        }
+    }
+
     @Test
     public void testGetFieldValue() {
         A a = new A();
@@ -182,4 +191,16 @@ class ReflectionUtilsTest {
         modelField.setValue(0); // setter assign null to age field if value is 0
         assertThat(user.age, nullValue());
     }
+
+    @Test
+    void testCreateInstance() {
+        assertThat(ReflectionUtils.createInstance(A.class), instanceOf(A.class));
+        assertThat(ReflectionUtils.createInstance(Map.class), instanceOf(LinkedHashMap.class));
+        assertThat(ReflectionUtils.getInstantiator(A.class), sameInstance(ReflectionUtils.getInstantiator(A.class)));
+
+        // class without no-arg constructor is created by serialization constructor
+        E e = ReflectionUtils.createInstance(E.class);
+        assertThat(e, notNullValue());
+        assertThat(e.name, nullValue());
+    }
 }
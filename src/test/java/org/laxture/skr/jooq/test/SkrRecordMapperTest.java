@@ -1,12 +1,17 @@
 package org.laxture.skr.jooq.test;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
 import org.jooq.Configuration;
 import org.jooq.DSLContext;
 import org.jooq.SQLDialect;
 import org.jooq.impl.DSL;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.laxture.skr.jooq.mapper.MappingEngine;
+import org.laxture.skr.jooq.mapper.SkrMapper;
 import org.laxture.skr.jooq.mapper.SkrRecordMapperProvider;
 import org.laxture.skr.jooq.mapper.TableFieldCaseType;
 import org.laxture.skr.jooq.mapper.converter.ConverterRegistry;
@@ -14,28 +19,38 @@ import org.laxture.skr.jooq.mapper.converter.json.JsonArrayConverter;
 import org.laxture.skr.jooq.mapper.converter.json.JsonObject2MapConverter;
 import org.laxture.skr.jooq.mapper.converter.json.JsonObjectConverter;
 import org.laxture.skr.jooq.mapper.misc.ObjectMapperConfigurer;
+import org.laxture.skr.jooq.mapper.misc.ReflectionUtils;
 import org.laxture.skr.jooq.test.model.User;
+import org.laxture.skr.jooq.test.model.UserHabit;
+import org.laxture.skr.jooq.test.model.UserSummary;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class SkrRecordMapperTest {
 
     private DSLContext dsl;
     private Connection connection;
     private ObjectMapper objectMapper;
+    private ConverterRegistry converterRegistry;
 
     @BeforeEach
     void setup() throws Exception {
         objectMapper = ObjectMapperConfigurer.setupPersistentObjectMapper(new ObjectMapper());
 
-        ConverterRegistry converterRegistry = new ConverterRegistry();
+        converterRegistry = new ConverterRegistry();
         converterRegistry.registerConverter(new JsonObjectConverter(objectMapper), null);
         converterRegistry.registerConverter(new JsonArrayConverter(objectMapper), null);
         converterRegistry.registerConverter(new JsonObject2MapConverter(objectMapper), null);
@@ -175,4 +190,228 @@ class SkrRecordMapperTest {
         assertThat(user.getName(), is("Skr_0_age"));
         assertThat(user.age, nullValue());
     }
+
+    @Test
+    void testBytecodeEngineMapping() {
+        DSLContext bytecodeDsl = DSL.using(dsl.configuration().derive(new SkrRecordMapperProvider(converterRegistry,
+            TableFieldCaseType.SCREAMING_SNAKE_CASE, objectMapper, MappingEngine.BYTECODE)));
+        org.jooq.Record record = bytecodeDsl.resultQuery("SELECT * FROM users WHERE name = 'Skr'").fetchOne();
+
+        User user = record.into(User.class);
+
+        assertThat(user, notNullValue());
+        assertThat(user.getName(), is("Skr"));
+        assertThat(user.getAge(), is(30));
+        assertThat(user.getCreatedAt(), is(LocalDateTime.parse("2023-01-01T12:00:00")));
+        assertThat(user.getAddress(), notNullValue());
+        assertThat(user.getAddress().getCity(), is("New York"));
+        assertThat(user.getUserProfile().getAvatarUrl(), is("https://avatar.com/hank.jpg"));
+        assertThat(user.getEduExperiences().size(), is(2));
+        assertThat(user.getFriendIds().get(2), is(3L));
+        assertThat(user.getExtras(), aMapWithSize(2));
+        assertThat(user.getExtras().get("note"), is("note"));
+
+        User zeroAgeUser = bytecodeDsl.resultQuery("SELECT * FROM users WHERE name = 'Skr_0_age'").fetchOne().into(User.class);
+        assertThat(zeroAgeUser.age, nullValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBytecodeEngineMappingPackagePrivateModel() {
+        SkrRecordMapperProvider bytecodeProvider = new SkrRecordMapperProvider(converterRegistry,
+            TableFieldCaseType.SCREAMING_SNAKE_CASE, objectMapper, MappingEngine.BYTECODE);
+        DSLContext bytecodeDsl = DSL.using(dsl.configuration().derive(bytecodeProvider));
+
+        InternalUser user = bytecodeDsl.resultQuery("SELECT id, name, age FROM users WHERE name = 'Skr'")
+            .fetchOne().into(InternalUser.class);
+
+        assertThat(user.getId(), notNullValue());
+        assertThat(user.getName(), is("Skr"));
+        assertThat(user.getAge(), is(30));
+        // mapper is generated into the model's package instead of falling back to reflection
+        ClassValue<Map<?, ?>> shapesByModel = ReflectionUtils.getFieldValue(bytecodeProvider, "recordMappers.shapesByModel");
+        Class<?> mapperClass = shapesByModel.get(InternalUser.class).values().iterator().next().getClass();
+        assertThat(mapperClass.isHidden(), is(true));
+        assertThat(mapperClass.getPackageName(), is(InternalUser.class.getPackageName()));
+    }
+
+    @Test
+    void testRecordMapping() {
+        org.jooq.Record record = dsl.resultQuery("SELECT * FROM users WHERE name = 'Skr'").fetchOne();
+
+        UserSummary summary = record.into(UserSummary.class);
+
+        assertThat(summary, notNullValue());
+        assertThat(summary.id(), notNullValue());
+        assertThat(summary.name(), is("Skr"));
+        assertThat(summary.age(), is(30));
+        assertThat(summary.birthDate(), is(LocalDate.parse("2000-01-01")));
+        // nested record is built from prefixed columns
+        assertThat(summary.address(), notNullValue());
+        assertThat(summary.address().line1(), is("123 Main St"));
+        assertThat(summary.address().city(), is("New York"));
+        // nested mutable model is filled by its setters
+        assertThat(summary.userProfile(), notNullValue());
+        assertThat(summary.userProfile().getAvatarUrl(), is("https://avatar.com/hank.jpg"));
+
+        org.jooq.Record partial = dsl.resultQuery("SELECT name FROM users WHERE name = 'Skr'").fetchOne();
+        summary = partial.into(UserSummary.class);
+        assertThat(summary.name(), is("Skr"));
+        assertThat(summary.age(), is(0));
+        assertThat(summary.address(), nullValue());
+
+        // columns bound to constructor arguments get pre-bound converters
+        SkrRecordMapperProvider provider = (SkrRecordMapperProvider) dsl.configuration().recordMapperProvider();
+        ClassValue<Map<?, ?>> shapesByModel = ReflectionUtils.getFieldValue(provider, "recordMappers.shapesByModel");
+        for (Object mapper : shapesByModel.get(UserSummary.class).values()) {
+            Object[] converters = ReflectionUtils.getFieldValue(mapper, "converters");
+            assertThat(converters[0], notNullValue());
+        }
+    }
+
+    @Test
+    void testUnresolvedConstructorParameterNames() {
+        // parameter names can't be resolved without -parameters, fallback to write properties
+        UnnamedArgsUser user = dsl.resultQuery("SELECT name, age FROM users WHERE name = 'Skr'")
+            .fetchOne().into(UnnamedArgsUser.class);
+
+        assertThat(user.getName(), is("Skr"));
+        assertThat(user.getAge(), is(30));
+    }
+
+    @Test
+    void testJsonPathMapping() {
+        UserHabit habit = dsl.resultQuery(
+            "SELECT name, meta_info, edu_experiences, note FROM users WHERE name = 'Skr'").fetchOne().into(UserHabit.class);
+
+        assertThat(habit.getName(), is("Skr"));
+        assertThat(habit.getHabit(), is("reading"));
+        assertThat(habit.isMarried(), is(true));
+        // absent path leaves the property untouched
+        assertThat(habit.getTheme(), is("light"));
+        assertThat(habit.getFirstMajor(), is("CS"));
+        assertThat(habit.getSecondEduExperience().major, is("Math"));
+        // source columns are not collected as leftovers
+        assertThat(habit.getExtras(), aMapWithSize(1));
+        assertThat(habit.getExtras().get("note"), is("note"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testMappingPlanCacheBounded() {
+        SkrRecordMapperProvider provider = (SkrRecordMapperProvider) dsl.configuration().recordMapperProvider();
+        for (int i = 0; i < 300; i++) {
+            User user = dsl.resultQuery("SELECT 1 AS ID, 'x' AS EXTRA_" + i).fetchOne().into(User.class);
+            assertThat(user.getId(), is(1L));
+        }
+        ClassValue<Map<?, ?>> shapesByModel = ReflectionUtils.getFieldValue(provider, "recordMappers.shapesByModel");
+        assertThat(shapesByModel.get(User.class).size(), is(256));
+    }
+
+    @Test
+    void testMapAll() {
+        SkrMapper mapper = new SkrMapper((SkrRecordMapperProvider) dsl.configuration().recordMapperProvider());
+        org.jooq.Result<org.jooq.Record> result = dsl.resultQuery("SELECT * FROM users ORDER BY id").fetch();
+
+        List<List<? extends User>> batches = new ArrayList<>();
+        List<User> users = mapper.mapAll(result, User.class, batches::add);
+
+        assertThat(users, hasSize(2));
+        assertThat(users.get(0).getName(), is("Skr"));
+        assertThat(users.get(0).getAddress().getCity(), is("New York"));
+        assertThat(users.get(0).getExtras(), aMapWithSize(2));
+        assertThat(users.get(1).getName(), is("Skr_0_age"));
+        assertThat(users.get(1).age, nullValue());
+        assertThat(batches, hasSize(1));
+        assertThat(batches.get(0), hasSize(2));
+    }
+
+    @Test
+    void testStream() {
+        SkrMapper mapper = new SkrMapper((SkrRecordMapperProvider) dsl.configuration().recordMapperProvider());
+        int rowCount = 2_000_000;
+        org.jooq.ResultQuery<org.jooq.Record> query = dsl.resultQuery(
+            "SELECT X AS ID, CONCAT('user_', X) AS NAME FROM SYSTEM_RANGE(1, " + rowCount + ") ORDER BY X");
+
+        long[] count = new long[1];
+        User[] last = new User[1];
+        try (Stream<User> users = mapper.stream(query, User.class, 5000)) {
+            users.forEach(user -> {
+                count[0]++;
+                last[0] = user;
+            });
+        }
+        assertThat(count[0], is((long) rowCount));
+        assertThat(last[0].getId(), is((long) rowCount));
+        assertThat(last[0].getName(), is("user_" + rowCount));
+
+        // cursor is closed once exhausted
+        org.jooq.Cursor<org.jooq.Record> cursor = dsl.resultQuery(
+            "SELECT X AS ID FROM SYSTEM_RANGE(1, 250)").fetchLazy();
+        Iterator<User> iterator = mapper.iterate(cursor, User.class, 100);
+        int iterated = 0;
+        while (iterator.hasNext()) {
+            assertThat(iterator.next().getId(), is((long) ++iterated));
+        }
+        assertThat(iterated, is(250));
+        assertThat(cursor.isClosed(), is(true));
+
+        // invalid fetch size is rejected before the query is executed
+        assertThrows(IllegalArgumentException.class, () -> mapper.stream(query, User.class, 0));
+    }
+
+    @Test
+    void testMapAllParallel() {
+        SkrMapper mapper = new SkrMapper((SkrRecordMapperProvider) dsl.configuration().recordMapperProvider());
+        int rowCount = 200_000;
+        org.jooq.Result<org.jooq.Record> result = dsl.resultQuery(
+            "SELECT X AS ID, CONCAT('user_', X) AS NAME, MOD(X, 100) + 1 AS AGE FROM SYSTEM_RANGE(1, "
+                + rowCount + ") ORDER BY X").fetch();
+
+        List<User> users;
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            users = mapper.mapAllParallel(result, User.class, pool);
+        }
+
+        assertThat(users, hasSize(rowCount));
+        for (int i : new int[] {0, 1, rowCount / 2, rowCount - 1}) {
+            User user = users.get(i);
+            assertThat(user.getId(), is(i + 1L));
+            assertThat(user.getName(), is("user_" + (i + 1)));
+            assertThat(user.getAge(), is((i + 1) % 100 + 1));
+        }
+        // results keep the record order
+        int outOfOrder = -1;
+        for (int i = 0; i < rowCount && outOfOrder < 0; i++) {
+            if (users.get(i).getId() != i + 1L) outOfOrder = i;
+        }
+        assertThat(outOfOrder, is(-1));
+
+        // small results are mapped sequentially
+        List<User> smallUsers = mapper.mapAllParallel(dsl.resultQuery("SELECT * FROM users ORDER BY id").fetch(), User.class);
+        assertThat(smallUsers, hasSize(2));
+        assertThat(smallUsers.get(0).getName(), is("Skr"));
+    }
+
+    /** 测试包内可见的模型 */
+    @Getter
+    @Setter(AccessLevel.PACKAGE)
+    static class InternalUser {
+        private Long id;
+        private String name;
+        private Integer age;
+    }
+
+    /** 测试无法解析构造器参数名的模型，字段顺序与参数不一致 */
+    @Getter
+    @Setter
+    static class UnnamedArgsUser {
+        private Integer age;
+        private String name;
+
+        UnnamedArgsUser(String name, Integer age) {
+            this.name = name;
+            this.age = age;
+        }
+    }
 }
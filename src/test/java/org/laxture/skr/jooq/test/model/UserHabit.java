@@ -0,0 +1,26 @@
+package org.laxture.skr.jooq.test.model;
+
+import lombok.Data;
+import org.laxture.skr.jooq.mapper.annotation.JsonPath;
+import org.laxture.skr.jooq.mapper.annotation.LeftoverCollector;
+
+import java.util.Map;
+
+@Data
+public class UserHabit {
+    private String name;
+
+    @JsonPath(value = "$.habit", source = "metaInfo")
+    private String habit;
+    @JsonPath(value = "$['married']", source = "metaInfo")
+    private boolean married;
+    @JsonPath(value = "$.settings.theme", source = "metaInfo")
+    private String theme = "light";
+    @JsonPath(value = "$[0].major", source = "eduExperiences")
+    private String firstMajor;
+    @JsonPath(value = "$[1]", source = "eduExperiences")
+    private EducationExperience secondEduExperience;
+
+    @LeftoverCollector
+    private Map<String, Object> extras;
+}
@@ -0,0 +1,14 @@
+package org.laxture.skr.jooq.test.model;
+
+import java.time.LocalDate;
+
+public record UserSummary(
+    Long id,
+    String name,
+    int age,
+    LocalDate birthDate,
+    AddressSummary address,
+    UserProfile userProfile
+) {
+    public record AddressSummary(String line1, String city) {}
+}